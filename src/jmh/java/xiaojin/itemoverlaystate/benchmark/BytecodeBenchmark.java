@@ -0,0 +1,54 @@
+package xiaojin.itemoverlaystate.benchmark;
+
+import net.minecraft.item.ItemStack;
+import org.openjdk.jmh.annotations.*;
+import xiaojin.itemoverlaystate.client.condition.IosCondition;
+import xiaojin.itemoverlaystate.client.condition.IosConditionGenerator;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 普通判断与{@link IosConditionGenerator}生成的判断类的对比，用于决定是否开启字节码判断
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BytecodeBenchmark {
+	/**
+	 * thresholds只有数字范围，combined还包括附魔和名称
+	 */
+	@Param({"thresholds", "combined"})
+	public String predicate;
+	
+	private ItemStack    sword;
+	private IosCondition interpreted;
+	private IosCondition generated;
+	
+	@Setup
+	public void setup() {
+		IosFixtures.bootstrap();
+		sword = IosFixtures.sword(IosFixtures.TINY);
+		if ("thresholds".equals(predicate)) {
+			interpreted = IosFixtures.compile("{\"ios:stacking\": \"1..\", \"ios:damage\": \"[500..1000)\"}");
+		} else {
+			interpreted = IosFixtures.compile("{\"ios:stacking\": 1, \"ios:damage\": \"[500..1000)\", \"ios:includeEnchantment\": \"minecraft:sharpness\", \"ios:name\": \"Benchmark.*\"}");
+		}
+		generated = IosConditionGenerator.generate(interpreted);
+		if (generated == null || generated.test(sword, null, null) != interpreted.test(sword, null, null)) {
+			throw new IllegalStateException("Generated condition does not match " + predicate);
+		}
+	}
+	
+	@Benchmark
+	public boolean interpreted() {
+		return interpreted.test(sword, null, null);
+	}
+	
+	@Benchmark
+	public boolean generated() {
+		return generated.test(sword, null, null);
+	}
+}
@@ -0,0 +1,48 @@
+package xiaojin.itemoverlaystate.benchmark;
+
+import com.google.gson.JsonElement;
+import net.minecraft.util.ResourceLocation;
+import org.openjdk.jmh.annotations.*;
+import xiaojin.itemoverlaystate.client.condition.IosCondition;
+import xiaojin.itemoverlaystate.client.condition.IosConditions;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 模型加载时的谓词解析和编译开销
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompileBenchmark {
+	private Map<ResourceLocation, JsonElement> percentage;
+	private Map<ResourceLocation, JsonElement> nbt;
+	private Map<ResourceLocation, JsonElement> combined;
+	
+	@Setup
+	public void setup() {
+		IosFixtures.bootstrap();
+		percentage = IosFixtures.predicates("{\"ios:stacking\": \"37.5%\"}");
+		nbt = IosFixtures.predicates("{\"ios:nbt\": {\"tag\": {\"display\": {\"Name\": \"a\"}, \"ints\": [1, 2, 3], \"ench\": {\"id\": 16}}}}");
+		combined = IosFixtures.predicates("{\"ios:name\": \"Benchmark.*\", \"ios:enchantment\": {\"minecraft:sharpness\": 5}, \"ios:damage\": \"50%\"}");
+	}
+	
+	@Benchmark
+	public IosCondition compilePercentage() {
+		return IosConditions.compile(percentage);
+	}
+	
+	@Benchmark
+	public IosCondition compileNbt() {
+		return IosConditions.compile(nbt);
+	}
+	
+	@Benchmark
+	public IosCondition compileCombined() {
+		return IosConditions.compile(combined);
+	}
+}
@@ -0,0 +1,171 @@
+package xiaojin.itemoverlaystate.benchmark;
+
+import net.minecraft.item.ItemStack;
+import org.openjdk.jmh.annotations.*;
+import xiaojin.itemoverlaystate.client.condition.IosCondition;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 各类ios:条件的判断开销
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConditionBenchmark {
+	@Param({IosFixtures.TINY, IosFixtures.MEDIUM, IosFixtures.LARGE})
+	public String size;
+	
+	private ItemStack    sword;
+	private ItemStack    arrows;
+	private IosCondition stacking;
+	private IosCondition stackingPercentage;
+	private IosCondition stackingRange;
+	private IosCondition damage;
+	private IosCondition damagePercentage;
+	private IosCondition nbtCompound;
+	private IosCondition nbtList;
+	private IosCondition nbtByteArray;
+	private IosCondition nbtIntArray;
+	private IosCondition nbtLongArray;
+	private IosCondition nbtDamage;
+	private IosCondition nbtPath;
+	private IosCondition nbtPathLongArray;
+	private IosCondition includeNbt;
+	private IosCondition enchantment;
+	private IosCondition includeEnchantment;
+	private IosCondition nameLiteral;
+	private IosCondition namePrefix;
+	private IosCondition nameRegex;
+	private IosCondition combined;
+	
+	@Setup
+	public void setup() {
+		IosFixtures.bootstrap();
+		sword = IosFixtures.sword(size);
+		arrows = IosFixtures.arrows(size);
+		stacking = IosFixtures.compile("{\"ios:stacking\": 16}");
+		stackingPercentage = IosFixtures.compile("{\"ios:stacking\": \"50%\"}");
+		stackingRange = IosFixtures.compile("{\"ios:stacking\": \"(25%..48]\"}");
+		damage = IosFixtures.compile("{\"ios:damage\": 500}");
+		damagePercentage = IosFixtures.compile("{\"ios:damage\": \"25.5%\"}");
+		nbtCompound = IosFixtures.compile("{\"ios:nbt\": {\"tag\": {\"display\": {\"Name\": \"Benchmark Blade of " + size + "\"}}}}");
+		nbtList = IosFixtures.compile("{\"ios:nbt\": {\"tag\": {\"BlockEntityTag\": {\"Items\": {\"id\": \"minecraft:stone\"}}}}}");
+		nbtByteArray = IosFixtures.compile("{\"ios:nbt\": {\"tag\": {\"bytes\": [7, 1, 2, 3, 4, 5]}}}");
+		nbtIntArray = IosFixtures.compile("{\"ios:nbt\": {\"tag\": {\"ints\": [-1, 1, 2, 3, 4, 5, 6, 7]}}}");
+		nbtLongArray = IosFixtures.compile("{\"ios:nbt\": {\"tag\": {\"longs\": [-1, 1, 2, 3, 4, 5, 6, 7]}}}");
+		nbtDamage = IosFixtures.compile("{\"ios:nbt\": {\"Damage\": 800}}");
+		nbtPath = IosFixtures.compile("{\"ios:nbtPath\": {\"path\": \"tag.display.Name\", \"value\": \"Benchmark Blade of " + size + "\"}}");
+		nbtPathLongArray = IosFixtures.compile("{\"ios:nbtPath\": {\"path\": \"tag.longs[-1]\", \"value\": -1}}");
+		includeNbt = IosFixtures.compile("{\"ios:includeNbt\": [\"display\", \"ench\"]}");
+		enchantment = IosFixtures.compile("{\"ios:enchantment\": {\"minecraft:sharpness\": 5, \"minecraft:unbreaking\": 1}}");
+		includeEnchantment = IosFixtures.compile("{\"ios:includeEnchantment\": [\"minecraft:fire_aspect\", \"minecraft:looting\"]}");
+		nameLiteral = IosFixtures.compile("{\"ios:name\": \"Benchmark Blade of " + size + "\"}");
+		namePrefix = IosFixtures.compile("{\"ios:name\": \"Benchmark.*\"}");
+		nameRegex = IosFixtures.compile("{\"ios:name\": \"B\\\\w+ Blade (of|for) [a-z]+\"}");
+		combined = IosFixtures.compile("{\"ios:name\": \"Benchmark.*\", \"ios:includeEnchantment\": \"minecraft:sharpness\", \"ios:damage\": 500}");
+	}
+	
+	@Benchmark
+	public boolean stacking() {
+		return stacking.test(arrows, null, null);
+	}
+	
+	@Benchmark
+	public boolean stackingPercentage() {
+		return stackingPercentage.test(arrows, null, null);
+	}
+	
+	@Benchmark
+	public boolean stackingRange() {
+		return stackingRange.test(arrows, null, null);
+	}
+	
+	@Benchmark
+	public boolean damage() {
+		return damage.test(sword, null, null);
+	}
+	
+	@Benchmark
+	public boolean damagePercentage() {
+		return damagePercentage.test(sword, null, null);
+	}
+	
+	@Benchmark
+	public boolean nbtCompound() {
+		return nbtCompound.test(sword, null, null);
+	}
+	
+	@Benchmark
+	public boolean nbtList() {
+		return nbtList.test(sword, null, null);
+	}
+	
+	@Benchmark
+	public boolean nbtByteArray() {
+		return nbtByteArray.test(sword, null, null);
+	}
+	
+	@Benchmark
+	public boolean nbtIntArray() {
+		return nbtIntArray.test(sword, null, null);
+	}
+	
+	@Benchmark
+	public boolean nbtLongArray() {
+		return nbtLongArray.test(sword, null, null);
+	}
+	
+	@Benchmark
+	public boolean nbtDamage() {
+		return nbtDamage.test(sword, null, null);
+	}
+	
+	@Benchmark
+	public boolean nbtPath() {
+		return nbtPath.test(sword, null, null);
+	}
+	
+	@Benchmark
+	public boolean nbtPathLongArray() {
+		return nbtPathLongArray.test(sword, null, null);
+	}
+	
+	@Benchmark
+	public boolean includeNbt() {
+		return includeNbt.test(sword, null, null);
+	}
+	
+	@Benchmark
+	public boolean enchantment() {
+		return enchantment.test(sword, null, null);
+	}
+	
+	@Benchmark
+	public boolean includeEnchantment() {
+		return includeEnchantment.test(sword, null, null);
+	}
+	
+	@Benchmark
+	public boolean nameLiteral() {
+		return nameLiteral.test(sword, null, null);
+	}
+	
+	@Benchmark
+	public boolean namePrefix() {
+		return namePrefix.test(sword, null, null);
+	}
+	
+	@Benchmark
+	public boolean nameRegex() {
+		return nameRegex.test(sword, null, null);
+	}
+	
+	@Benchmark
+	public boolean combined() {
+		return combined.test(sword, null, null);
+	}
+}
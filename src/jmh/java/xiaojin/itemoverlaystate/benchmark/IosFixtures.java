@@ -0,0 +1,154 @@
+package xiaojin.itemoverlaystate.benchmark;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.minecraft.enchantment.Enchantment;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Enchantments;
+import net.minecraft.init.Items;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.*;
+import net.minecraft.util.ResourceLocation;
+import xiaojin.itemoverlaystate.client.condition.IosCondition;
+import xiaojin.itemoverlaystate.client.condition.IosConditions;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 基准测试用的物品和NBT
+ *
+ * <p>基准测试不经过LaunchWrapper，Mixin不会生效，长整型数组和根Damage键通过{@code mixinimod}接口的反射回退读取，
+ * 这里的谓词避开了ForgeCaps</p>
+ */
+final class IosFixtures {
+	/**
+	 * NBT规模：tiny只有显示名称，medium约100个键，large是含10000个物品的潜影盒式NBT
+	 */
+	static final String TINY   = "tiny";
+	static final String MEDIUM = "medium";
+	static final String LARGE  = "large";
+	
+	private static boolean bootstrapped;
+	
+	private IosFixtures() {
+	}
+	
+	/**
+	 * 初始化原版注册表，物品、附魔和翻译都依赖它
+	 */
+	static synchronized void bootstrap() {
+		if (!bootstrapped) {
+			Bootstrap.register();
+			bootstrapped = true;
+		}
+	}
+	
+	/**
+	 * 创建带有指定规模NBT的钻石剑
+	 *
+	 * @param size NBT规模
+	 * @return 物品
+	 */
+	static ItemStack sword(String size) {
+		ItemStack stack = new ItemStack(Items.DIAMOND_SWORD);
+		stack.setItemDamage(800);
+		stack.setTagCompound(tag(size));
+		return stack;
+	}
+	
+	/**
+	 * 创建堆叠数量为32的箭
+	 *
+	 * @param size NBT规模
+	 * @return 物品
+	 */
+	static ItemStack arrows(String size) {
+		ItemStack stack = new ItemStack(Items.ARROW, 32);
+		stack.setTagCompound(tag(size));
+		return stack;
+	}
+	
+	static NBTTagCompound tag(String size) {
+		Random random = new Random(42);
+		NBTTagCompound tag = new NBTTagCompound();
+		NBTTagCompound display = new NBTTagCompound();
+		display.setString("Name", "Benchmark Blade of " + size);
+		tag.setTag("display", display);
+		if (TINY.equals(size)) {
+			return tag;
+		}
+		int entries = MEDIUM.equals(size) ? 100 : 10000;
+		tag.setTag("ench", enchantments());
+		byte[] bytes = new byte[entries];
+		random.nextBytes(bytes);
+		bytes[entries - 1] = 7;
+		tag.setByteArray("bytes", bytes);
+		int[] ints = new int[entries];
+		for (int i = 0; i < entries; i++) {
+			ints[i] = random.nextInt(entries * 4);
+		}
+		ints[entries - 1] = -1;
+		tag.setIntArray("ints", ints);
+		long[] longs = new long[entries];
+		for (int i = 0; i < entries; i++) {
+			longs[i] = random.nextLong();
+		}
+		longs[entries - 1] = -1L;
+		tag.setTag("longs", new NBTTagLongArray(longs));
+		if (MEDIUM.equals(size)) {
+			for (int i = 0; i < entries; i++) {
+				tag.setInteger("key" + i, i);
+			}
+			return tag;
+		}
+		// 潜影盒式的物品列表
+		NBTTagList items = new NBTTagList();
+		for (int i = 0; i < entries; i++) {
+			NBTTagCompound item = new NBTTagCompound();
+			item.setByte("Slot", (byte) (i % 27));
+			item.setString("id", "minecraft:stone");
+			item.setByte("Count", (byte) (1 + random.nextInt(64)));
+			item.setShort("Damage", (short) 0);
+			items.appendTag(item);
+		}
+		NBTTagCompound blockEntityTag = new NBTTagCompound();
+		blockEntityTag.setTag("Items", items);
+		tag.setTag("BlockEntityTag", blockEntityTag);
+		return tag;
+	}
+	
+	private static NBTTagList enchantments() {
+		Enchantment[] enchantments = {Enchantments.UNBREAKING, Enchantments.LOOTING, Enchantments.KNOCKBACK,
+				Enchantments.FIRE_ASPECT, Enchantments.SHARPNESS};
+		NBTTagList list = new NBTTagList();
+		for (int i = 0; i < enchantments.length; i++) {
+			NBTTagCompound entry = new NBTTagCompound();
+			entry.setShort("id", (short) Enchantment.getEnchantmentID(enchantments[i]));
+			entry.setShort("lvl", (short) (i + 1));
+			list.appendTag(entry);
+		}
+		return list;
+	}
+	
+	/**
+	 * 按模型JSON中predicate的写法编译ios:谓词
+	 *
+	 * @param predicate 形如{@code {"ios:stacking": 16}}的JSON
+	 * @return 编译后的条件
+	 */
+	static IosCondition compile(String predicate) {
+		return IosConditions.compile(predicates(predicate));
+	}
+	
+	static Map<ResourceLocation, JsonElement> predicates(String predicate) {
+		JsonObject json = new JsonParser().parse(predicate).getAsJsonObject();
+		Map<ResourceLocation, JsonElement> map = new LinkedHashMap<>();
+		for (Map.Entry<String, JsonElement> entry : json.entrySet()) {
+			map.put(new ResourceLocation(entry.getKey()), entry.getValue());
+		}
+		return map;
+	}
+}
@@ -0,0 +1,49 @@
+package xiaojin.itemoverlaystate;
+
+import net.minecraftforge.common.config.Config;
+import net.minecraftforge.common.config.ConfigManager;
+import net.minecraftforge.fml.client.event.ConfigChangedEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+
+/**
+ * 模组配置
+ */
+@Config(modid = Tags.MOD_ID)
+public class IosConfig {
+	@Config.Comment("覆盖匹配缓存的最大条目数，为0时关闭缓存")
+	@Config.RangeInt(min = 0)
+	public static int matchCacheSize = 4096;
+	
+	@Config.Comment("ios:name正则表达式每次匹配最多读取的字符次数，超过时视为不匹配，防止回溯过多导致卡顿，为0时不限制")
+	@Config.RangeInt(min = 0)
+	public static int regexStepLimit = 100000;
+	
+	@Config.Comment("按键导出物品NBT时复制到剪贴板的最大字符数，超过时写入游戏目录下的itemoverlaystate/nbt文件夹，聊天栏只显示开头部分")
+	@Config.RangeInt(min = 0)
+	public static int nbtExportClipboardLimit = 65536;
+	
+	@Config.Comment("每帧用于覆盖判断的时间（微秒），超出后本帧剩余的物品沿用上次选出的模型，在之后的帧中轮流重新判断，为0时不限制")
+	@Config.RangeInt(min = 0)
+	public static int frameBudgetMicros = 0;
+	
+	@Config.Comment("在后台线程中预先计算玩家背包、盔甲栏和副手物品的覆盖模型，渲染时直接使用")
+	public static boolean precomputeInventory = true;
+	
+	@Config.Comment("覆盖判断多少次后为它生成专用的字节码判断类，为0时关闭")
+	@Config.RangeInt(min = 0)
+	public static int bytecodeThreshold = 0;
+	
+	@Config.Comment("ios:谓词在物品第一次渲染时才编译，加载模型时只记录谓词，适合覆盖很多但实际显示的物品较少的整合包")
+	public static boolean lazyPredicateCompile = false;
+	
+	@Mod.EventBusSubscriber(modid = Tags.MOD_ID)
+	public static class EventHandler {
+		@SubscribeEvent
+		public static void onConfigChanged(ConfigChangedEvent.OnConfigChangedEvent event) {
+			if (event.getModID().equals(Tags.MOD_ID)) {
+				ConfigManager.sync(Tags.MOD_ID, Config.Type.INSTANCE);
+			}
+		}
+	}
+}
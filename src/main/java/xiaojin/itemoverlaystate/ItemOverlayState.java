@@ -1,13 +1,26 @@
 package xiaojin.itemoverlaystate;
 
+import net.minecraftforge.client.ClientCommandHandler;
 import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.fml.common.FMLCommonHandler;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.common.event.FMLInitializationEvent;
+import net.minecraftforge.fml.common.event.FMLModIdMappingEvent;
 import net.minecraftforge.fml.common.event.FMLPreInitializationEvent;
 import net.minecraftforge.fml.relauncher.Side;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import xiaojin.itemoverlaystate.client.CustomKeyBindings;
+import xiaojin.itemoverlaystate.client.IosCommand;
+import xiaojin.itemoverlaystate.client.IosDebugOverlay;
+import xiaojin.itemoverlaystate.client.IosFrameBudget;
+import xiaojin.itemoverlaystate.client.IosFrameContext;
+import xiaojin.itemoverlaystate.client.IosInventoryPrecompute;
+import xiaojin.itemoverlaystate.client.IosMetrics;
+import xiaojin.itemoverlaystate.client.IosOverrideCache;
+import xiaojin.itemoverlaystate.client.IosWorldClock;
+import xiaojin.itemoverlaystate.client.condition.EnchantmentCondition;
+import xiaojin.itemoverlaystate.client.condition.IosConditionGenerator;
 
 @Mod(modid = Tags.MOD_ID, name = Tags.MOD_NAME, version = Tags.VERSION)
 public class ItemOverlayState {
@@ -28,6 +41,25 @@ public class ItemOverlayState {
 		if (event.getSide() == Side.CLIENT) {
 			CustomKeyBindings.init();
 			MinecraftForge.EVENT_BUS.register(new CustomKeyBindings());
+			IosOverrideCache.init();
+			IosConditionGenerator.init();
+			MinecraftForge.EVENT_BUS.register(new IosWorldClock());
+			MinecraftForge.EVENT_BUS.register(new IosFrameContext());
+			MinecraftForge.EVENT_BUS.register(new IosFrameBudget());
+			IosInventoryPrecompute.init();
+			MinecraftForge.EVENT_BUS.register(new IosInventoryPrecompute());
+			ClientCommandHandler.instance.registerCommand(new IosCommand());
+			if (IosMetrics.ENABLED) {
+				MinecraftForge.EVENT_BUS.register(new IosDebugOverlay());
+			}
+		}
+	}
+	
+	@Mod.EventHandler
+	public void onIdMapping(FMLModIdMappingEvent event) {
+		if (FMLCommonHandler.instance().getSide() == Side.CLIENT) {
+			EnchantmentCondition.onIdMapping();
+			IosOverrideCache.clear();
 		}
 	}
 }
@@ -10,7 +10,6 @@ import net.minecraftforge.fml.common.gameevent.InputEvent;
 import org.lwjgl.input.Keyboard;
 
 import static net.minecraft.util.EnumHand.MAIN_HAND;
-import static xiaojin.itemoverlaystate.client.AdvancedClipboardUtil.copyToClipboard;
 
 public class CustomKeyBindings {
 	
@@ -34,7 +33,7 @@ public class CustomKeyBindings {
 		if (getTheHandheldItemNbt.isPressed()) {
 			EntityPlayerSP player = Minecraft.getMinecraft().player;
 			ItemStack heldItem = player.getHeldItem(MAIN_HAND);
-			copyToClipboard(heldItem.serializeNBT().toString());
+			NbtExporter.export(heldItem);
 		}
 	}
 }
@@ -0,0 +1,108 @@
+package xiaojin.itemoverlaystate.client;
+
+import net.minecraft.command.CommandBase;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.command.WrongUsageException;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.text.Style;
+import net.minecraft.util.text.TextComponentString;
+import net.minecraft.util.text.event.ClickEvent;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 客户端命令/ios
+ *
+ * <ul>
+ *     <li>/ios metrics：显示统计摘要</li>
+ *     <li>/ios metrics dump：把完整统计写入日志和文件</li>
+ *     <li>/ios metrics reset：清空统计</li>
+ *     <li>/ios pool：显示谓词复用情况</li>
+ *     <li>/ios memory：显示ios:覆盖数据的内存占用</li>
+ * </ul>
+ */
+@SideOnly(Side.CLIENT)
+public class IosCommand extends CommandBase {
+	@Override
+	public String getName() {
+		return "ios";
+	}
+	
+	@Override
+	public String getUsage(ICommandSender sender) {
+		return "/ios <metrics [dump|reset]|pool|memory>";
+	}
+	
+	@Override
+	public int getRequiredPermissionLevel() {
+		return 0;
+	}
+	
+	@Override
+	public void execute(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException {
+		if (args.length == 0) {
+			throw new WrongUsageException(getUsage(sender));
+		}
+		if ("metrics".equals(args[0])) {
+			metrics(sender, args.length > 1 ? args[1] : "");
+		} else if ("pool".equals(args[0])) {
+			for (String line : IosPredicatePool.report()) {
+				sender.sendMessage(new TextComponentString(line));
+			}
+		} else if ("memory".equals(args[0])) {
+			for (String line : IosMemoryReport.report(10)) {
+				sender.sendMessage(new TextComponentString(line));
+			}
+		} else {
+			throw new WrongUsageException(getUsage(sender));
+		}
+	}
+	
+	private void metrics(ICommandSender sender, String action) throws CommandException {
+		if (!IosMetrics.ENABLED) {
+			sender.sendMessage(new TextComponentString("统计未开启，请使用-Ditemoverlaystate.metrics=true启动游戏"));
+			return;
+		}
+		switch (action) {
+			case "":
+				for (String line : IosMetrics.summary(10)) {
+					sender.sendMessage(new TextComponentString(line));
+				}
+				break;
+			case "dump":
+				try {
+					File file = IosMetrics.dump();
+					TextComponentString link = new TextComponentString(file.getName());
+					link.setStyle(new Style().setUnderlined(true).setClickEvent(new ClickEvent(ClickEvent.Action.OPEN_FILE, file.getAbsolutePath())));
+					sender.sendMessage(new TextComponentString("统计已写入 ").appendSibling(link));
+				} catch (IOException e) {
+					throw new CommandException("写入统计失败：" + e.getMessage());
+				}
+				break;
+			case "reset":
+				IosMetrics.reset();
+				sender.sendMessage(new TextComponentString("统计已清空"));
+				break;
+			default:
+				throw new WrongUsageException(getUsage(sender));
+		}
+	}
+	
+	@Override
+	public List<String> getTabCompletions(MinecraftServer server, ICommandSender sender, String[] args, @Nullable BlockPos targetPos) {
+		if (args.length == 1) {
+			return getListOfStringsMatchingLastWord(args, "metrics", "pool", "memory");
+		} else if (args.length == 2 && "metrics".equals(args[0])) {
+			return getListOfStringsMatchingLastWord(args, "dump", "reset");
+		}
+		return Collections.emptyList();
+	}
+}
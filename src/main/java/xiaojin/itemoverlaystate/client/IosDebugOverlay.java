@@ -0,0 +1,38 @@
+package xiaojin.itemoverlaystate.client;
+
+import net.minecraft.client.Minecraft;
+import net.minecraftforge.client.event.RenderGameOverlayEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 在调试界面（F3）右侧显示{@link IosMetrics}的摘要，只在开启统计时注册
+ */
+@SideOnly(Side.CLIENT)
+public class IosDebugOverlay {
+	/**
+	 * 摘要的刷新间隔（毫秒），避免每帧都排序
+	 */
+	private static final long REFRESH_INTERVAL = 500;
+	
+	private List<String> lines       = Collections.emptyList();
+	private long         lastRefresh;
+	
+	@SubscribeEvent
+	public void onDebugText(RenderGameOverlayEvent.Text event) {
+		if (!Minecraft.getMinecraft().gameSettings.showDebugInfo) {
+			return;
+		}
+		long now = Minecraft.getSystemTime();
+		if (now - lastRefresh >= REFRESH_INTERVAL) {
+			lines = IosMetrics.summary(5);
+			lastRefresh = now;
+		}
+		event.getRight().add("");
+		event.getRight().addAll(lines);
+	}
+}
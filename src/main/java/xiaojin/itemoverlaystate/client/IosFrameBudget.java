@@ -0,0 +1,115 @@
+package xiaojin.itemoverlaystate.client;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.block.model.ItemOverrideList;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import xiaojin.itemoverlaystate.IosConfig;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * 每帧覆盖判断的时间预算
+ *
+ * <p>{@link IosConfig#frameBudgetMicros}大于0时开启。一帧内缓存未命中的判断累计超过预算后，
+ * 本帧剩余的物品沿用上次选出的模型（物品对象相同时），下一帧从超出预算的位置继续判断，之前的物品沿用这一帧的结果，
+ * 一轮结束后再从头开始，所有物品轮流更新。只在渲染线程上生效，纹理最多晚几帧更新</p>
+ */
+@SideOnly(Side.CLIENT)
+public class IosFrameBudget {
+	private static final Map<ItemStack, Entry> LAST      = new WeakHashMap<>(); // 物品上次选出的模型，物品对象按引用比较
+	private static       long                  spent;     // 本帧判断已用的时间（纳秒）
+	private static       long                  started;   // 正在进行的判断开始的时间，没有时为0
+	private static       int                   index;     // 本帧的判断序号
+	private static       int                   start;     // 本帧从这个序号开始重新判断
+	private static       int                   nextStart; // 下一帧开始重新判断的序号
+	private static       boolean               exhausted; // 本帧的预算是否已用完
+	private static       long                  deferred;  // 沿用上次结果的总次数
+	
+	@SubscribeEvent
+	public void onRenderTick(TickEvent.RenderTickEvent event) {
+		if (event.phase == TickEvent.Phase.START) {
+			start = nextStart;
+			nextStart = 0;
+			spent = 0;
+			started = 0;
+			index = 0;
+			exhausted = false;
+		}
+	}
+	
+	/**
+	 * @return 如果开启了预算并且在渲染线程上返回true，否则返回false
+	 */
+	public static boolean isActive() {
+		return IosConfig.frameBudgetMicros > 0 && Minecraft.getMinecraft().isCallingFromMinecraftThread();
+	}
+	
+	/**
+	 * 在判断之前调用，决定这次判断是否推迟到之后的帧，调用前需要确认{@link #isActive()}
+	 *
+	 * @return 推迟时返回上次选出的模型（没有匹配的覆盖时为{@link IosOverrideCache#NO_OVERRIDE}），需要判断时返回null
+	 */
+	@Nullable
+	public static ResourceLocation defer(ItemOverrideList list, ItemStack stack) {
+		int current = index++;
+		if (!exhausted && current >= start && spent >= IosConfig.frameBudgetMicros * 1000L) {
+			exhausted = true;
+			nextStart = current;
+		}
+		if (exhausted || current < start) {
+			Entry entry = LAST.get(stack);
+			if (entry != null && entry.list == list) {
+				deferred++;
+				return entry.result;
+			}
+		}
+		// 没有上次的结果时只能立即判断
+		started = System.nanoTime();
+		return null;
+	}
+	
+	/**
+	 * 在判断之后调用，记录耗时和结果，调用前需要确认{@link #isActive()}
+	 *
+	 * @param result 选出的模型，没有匹配的覆盖时为null
+	 */
+	public static void record(ItemOverrideList list, ItemStack stack, @Nullable ResourceLocation result) {
+		if (started == 0) {
+			return;
+		}
+		spent += System.nanoTime() - started;
+		started = 0;
+		ResourceLocation value = result == null ? IosOverrideCache.NO_OVERRIDE : result;
+		Entry entry = LAST.get(stack);
+		if (entry == null) {
+			LAST.put(stack, new Entry(list, value));
+		} else {
+			entry.list = list;
+			entry.result = value;
+		}
+	}
+	
+	/**
+	 * @return 沿用上次结果的总次数
+	 */
+	public static long getDeferred() {
+		return deferred;
+	}
+	
+	private static final class Entry {
+		private ItemOverrideList list;
+		private ResourceLocation result;
+		
+		private Entry(ItemOverrideList list, ResourceLocation result) {
+			this.list = list;
+			this.result = result;
+		}
+	}
+}
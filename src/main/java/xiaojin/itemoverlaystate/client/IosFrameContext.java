@@ -0,0 +1,161 @@
+package xiaojin.itemoverlaystate.client;
+
+import net.minecraft.client.gui.inventory.GuiContainer;
+import net.minecraft.client.renderer.block.model.ItemOverrideList;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.world.World;
+import net.minecraftforge.client.event.GuiScreenEvent;
+import net.minecraftforge.fml.common.eventhandler.EventPriority;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 容器界面的单帧批量上下文
+ *
+ * <p>绘制容器界面（包括创造模式物品栏和在界面之后绘制的物品列表）的一帧内，世界和实体不会变化，
+ * 同一个覆盖列表对相同物品的结果也不会变化。上下文按{@link Item}分组记录这一帧已经选出的覆盖模型，
+ * 同一个物品对象直接按引用命中，相同的物品按组比较后复用，包括不能跨帧缓存的覆盖列表</p>
+ */
+@SideOnly(Side.CLIENT)
+public class IosFrameContext {
+	/**
+	 * 每个物品最多保留的代表数量，避免大量不同NBT的物品退化为平方级比较
+	 */
+	private static final int MAX_GROUP_SIZE = 16;
+	
+	private static final Map<ItemStack, Resolved>  BY_STACK = new IdentityHashMap<>();
+	private static final Map<Item, List<Resolved>> BY_ITEM  = new IdentityHashMap<>();
+	private static       Thread                    owner; // 绘制界面的线程，为null时上下文未开启
+	
+	@SubscribeEvent(priority = EventPriority.HIGHEST)
+	public void onDrawScreen(GuiScreenEvent.DrawScreenEvent.Pre event) {
+		if (event.getGui() instanceof GuiContainer) {
+			begin();
+		}
+	}
+	
+	@SubscribeEvent
+	public void onRenderTick(TickEvent.RenderTickEvent event) {
+		if (event.phase == TickEvent.Phase.END) {
+			end();
+		}
+	}
+	
+	/**
+	 * 开启上下文，之前的结果全部丢弃
+	 */
+	public static void begin() {
+		clear();
+		owner = Thread.currentThread();
+	}
+	
+	/**
+	 * 关闭上下文
+	 */
+	public static void end() {
+		if (owner != null) {
+			clear();
+			owner = null;
+		}
+	}
+	
+	private static void clear() {
+		BY_STACK.clear();
+		BY_ITEM.clear();
+	}
+	
+	/**
+	 * @return 如果当前线程处于上下文中返回true，否则返回false
+	 */
+	public static boolean isActive() {
+		return owner == Thread.currentThread();
+	}
+	
+	/**
+	 * 查询这一帧已经选出的覆盖模型，调用前需要确认{@link #isActive()}
+	 *
+	 * @return 覆盖模型，没有匹配的覆盖时为{@link IosOverrideCache#NO_OVERRIDE}，这一帧还没有结果时为null
+	 */
+	@Nullable
+	public static ResourceLocation get(ItemOverrideList list, ItemStack stack, @Nullable World world, @Nullable EntityLivingBase entity) {
+		Resolved resolved = BY_STACK.get(stack);
+		if (resolved != null && resolved.matches(list, stack, world, entity)) {
+			return resolved.result;
+		}
+		List<Resolved> group = BY_ITEM.get(stack.getItem());
+		if (group == null) {
+			return null;
+		}
+		for (Resolved candidate : group) {
+			if (candidate.matches(list, stack, world, entity)) {
+				BY_STACK.put(stack, candidate);
+				return candidate.result;
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * 记录这一帧选出的覆盖模型，调用前需要确认{@link #isActive()}
+	 *
+	 * @param result 覆盖模型，没有匹配的覆盖时为null
+	 */
+	public static void put(ItemOverrideList list, ItemStack stack, @Nullable World world, @Nullable EntityLivingBase entity, @Nullable ResourceLocation result) {
+		Resolved resolved = new Resolved(list, stack, world, entity, result == null ? IosOverrideCache.NO_OVERRIDE : result);
+		BY_STACK.put(stack, resolved);
+		List<Resolved> group = BY_ITEM.computeIfAbsent(stack.getItem(), item -> new ArrayList<>());
+		if (group.size() < MAX_GROUP_SIZE) {
+			group.add(resolved);
+		}
+	}
+	
+	private static final class Resolved {
+		private final ItemOverrideList list;
+		private final World            world;
+		private final EntityLivingBase entity;
+		private final int              metadata;
+		private final int              count;
+		private final int              damage;
+		private final NBTTagCompound   nbt;
+		private final long             fingerprint; // NBT指纹
+		private final ResourceLocation result;
+		
+		private Resolved(ItemOverrideList list, ItemStack stack, @Nullable World world, @Nullable EntityLivingBase entity, ResourceLocation result) {
+			this.list = list;
+			this.world = world;
+			this.entity = entity;
+			this.metadata = stack.getMetadata();
+			this.count = stack.getCount();
+			this.damage = stack.getItemDamage();
+			this.nbt = stack.getTagCompound();
+			this.fingerprint = IosNbtFingerprint.of(nbt);
+			this.result = result;
+		}
+		
+		/**
+		 * 物品在同一帧内可能被修改，按引用命中时也重新比较数值
+		 */
+		private boolean matches(ItemOverrideList list, ItemStack stack, @Nullable World world, @Nullable EntityLivingBase entity) {
+			if (this.list != list || this.world != world || this.entity != entity) {
+				return false;
+			}
+			if (metadata != stack.getMetadata() || count != stack.getCount() || damage != stack.getItemDamage()) {
+				return false;
+			}
+			NBTTagCompound other = stack.getTagCompound();
+			return nbt == other || fingerprint == IosNbtFingerprint.of(other);
+		}
+	}
+}
@@ -0,0 +1,368 @@
+package xiaojin.itemoverlaystate.client;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.entity.EntityPlayerSP;
+import net.minecraft.client.renderer.block.model.ItemOverride;
+import net.minecraft.client.renderer.block.model.ItemOverrideList;
+import net.minecraft.client.resources.IReloadableResourceManager;
+import net.minecraft.entity.player.InventoryPlayer;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.*;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import xiaojin.itemoverlaystate.IosConfig;
+import xiaojin.itemoverlaystate.ItemOverlayState;
+import xiaojin.itemoverlaystate.client.condition.IosCondition;
+import xiaojin.itemoverlaystate.mixinimod.IModNBTTagLongArray;
+import xiaojin.itemoverlaystate.mixinimod.client.IModItemOverride;
+import xiaojin.itemoverlaystate.mixinimod.client.IModItemOverrideList;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 玩家物品栏覆盖模型的后台预计算
+ *
+ * <p>玩家背包、快捷栏、盔甲栏和副手的物品几乎每帧都要绘制，但只在物品栏变化时才会改变。每个客户端tick结束时逐格比较物品，
+ * 变化的格子复制一份物品快照交给后台线程，用快照选出覆盖模型后整体替换只读的结果表。渲染线程只读取结果表，
+ * 命中时不做任何谓词判断。只预计算结果只取决于物品本身、不调用可能被其他模组重写的方法的覆盖列表（见{@link IosCondition#requiresClientThread()}），
+ * 其他物品仍走正常流程。后台线程直接判断编译好的条件，不经过applyOverride。
+ * NBT被原地修改时标签对象不变，不超过{@link #WATCH_LIMIT}的标签每个tick按内容哈希再比较一次；更大的标签不预计算，每{@link #LARGE_CHECK_INTERVAL}个tick轮流检查其中一个；
+ * 没有NBT的格子只比较引用和数值。发现原地修改时让{@link IosNbtFingerprint}的记录失效，关闭预计算时也照常检查，避免覆盖匹配缓存使用旧的指纹</p>
+ */
+@SideOnly(Side.CLIENT)
+public class IosInventoryPrecompute {
+	/**
+	 * NBT节点数（数组每16个元素算一个）不超过该值时才预计算并每个tick检查内容
+	 */
+	private static final    int                    WATCH_LIMIT = 256;
+	/**
+	 * 检查较大NBT的间隔（tick），每次只检查一个格子
+	 */
+	private static final    int                    LARGE_CHECK_INTERVAL = 20;
+	private static final    ExecutorService        EXECUTOR   = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "ItemOverlayState Inventory");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private static final    Object                 LOCK       = new Object();
+	private static volatile Map<ItemStack, Result> results    = Collections.emptyMap(); // 发布后不再修改，按物品对象查找
+	private static          int                    generation; // 清空的次数，清空之前提交的任务不再发布结果
+	private static volatile boolean                reset;      // 资源重载后需要全部重新计算
+	private static          Slot[]                 slots      = new Slot[0]; // 上次检查时各格子的物品，只在客户端线程访问
+	private static          InventoryPlayer        inventory;  // 上次检查的物品栏
+	private static          int                    epoch;      // 上次检查时的时间跳变计数
+	private static          boolean                precompute; // 上次检查时是否开启预计算
+	private static          int                    largeCursor; // 下一个轮流检查较大NBT的格子
+	
+	/**
+	 * 注册资源重载监听，重载后全部重新计算
+	 */
+	public static void init() {
+		((IReloadableResourceManager) Minecraft.getMinecraft().getResourceManager()).registerReloadListener(resourceManager -> reset = true);
+	}
+	
+	/**
+	 * 判断可以缓存的覆盖列表能否在后台线程判断
+	 *
+	 * @param overrides 可以缓存的覆盖列表
+	 * @return 如果没有只能在客户端线程判断的条件返回true，否则返回false
+	 */
+	public static boolean isPrecomputable(List<ItemOverride> overrides) {
+		for (ItemOverride override : overrides) {
+			IosCondition condition = ((IModItemOverride) override).getCondition();
+			if (condition == null || condition.requiresClientThread()) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * 读取预先计算的覆盖模型，任何线程都可以调用
+	 *
+	 * @return 覆盖模型，没有匹配的覆盖时为{@link IosOverrideCache#NO_OVERRIDE}，没有可用的结果时为null
+	 */
+	@Nullable
+	public static ResourceLocation get(ItemOverrideList list, ItemStack stack) {
+		Map<ItemStack, Result> current = results;
+		if (current.isEmpty()) {
+			return null;
+		}
+		Result result = current.get(stack);
+		return result != null && result.matches(list, stack) ? result.model : null;
+	}
+	
+	@SubscribeEvent
+	public void onClientTick(TickEvent.ClientTickEvent event) {
+		if (event.phase != TickEvent.Phase.END) {
+			return;
+		}
+		EntityPlayerSP player = Minecraft.getMinecraft().player;
+		if (player == null) {
+			if (inventory != null) {
+				clear();
+			}
+			return;
+		}
+		if (player.inventory != inventory || reset || precompute != IosConfig.precomputeInventory) {
+			// 换了玩家实体（重生、切换维度）、资源重载或切换预计算后全部重新计算
+			clear();
+			precompute = IosConfig.precomputeInventory;
+			inventory = player.inventory;
+			epoch = IosWorldClock.getEpoch();
+			reset = false;
+			slots = new Slot[inventory.getSizeInventory()];
+		} else if (epoch != IosWorldClock.getEpoch()) {
+			// 时间跳变后只重新计算取决于时间的格子
+			epoch = IosWorldClock.getEpoch();
+			for (Slot slot : slots) {
+				if (slot != null && slot.timed) {
+					slot.replaced = true;
+				}
+			}
+		}
+		List<Job> jobs = null;
+		List<ItemStack> removed = null;
+		for (int i = 0; i < slots.length; i++) {
+			ItemStack stack = inventory.getStackInSlot(i);
+			Slot slot = slots[i];
+			if (slot != null && slot.isCurrent(stack)) {
+				continue;
+			}
+			if (slot != null) {
+				// 结果表在后台线程发布之前不再使用旧的结果
+				slot.replaced = true;
+				if (slot.isEditedInPlace(stack)) {
+					IosNbtFingerprint.invalidate(slot.nbt);
+				}
+				if (removed == null) {
+					removed = new ArrayList<>();
+				}
+				removed.add(slot.stack);
+			}
+			ItemOverrideList list = precompute ? overridesOf(stack) : null;
+			slot = new Slot(stack, list != null && ((IModItemOverrideList) list).dependsOnTime());
+			slots[i] = slot;
+			if (list != null && slot.watched) {
+				if (jobs == null) {
+					jobs = new ArrayList<>();
+				}
+				jobs.add(new Job(slot, list));
+			}
+		}
+		checkLarge();
+		if (jobs != null || removed != null) {
+			submit(jobs == null ? Collections.emptyList() : jobs, removed == null ? Collections.emptyList() : removed);
+		}
+	}
+	
+	/**
+	 * 轮流检查一个NBT过大、不在每个tick检查的格子，发现原地修改时让指纹记录失效
+	 */
+	private static void checkLarge() {
+		if (slots.length == 0 || IosWorldClock.getTick() % LARGE_CHECK_INTERVAL != 0) {
+			return;
+		}
+		for (int n = 0; n < slots.length; n++) {
+			Slot slot = slots[largeCursor];
+			largeCursor = (largeCursor + 1) % slots.length;
+			if (slot != null && slot.nbt != null && !slot.watched) {
+				IosNbtFingerprint.refresh(slot.nbt);
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * @return 物品的覆盖列表，不能预计算时返回null
+	 */
+	@Nullable
+	private static ItemOverrideList overridesOf(ItemStack stack) {
+		if (stack.isEmpty()) {
+			return null;
+		}
+		ItemOverrideList list = Minecraft.getMinecraft().getRenderItem().getItemModelMesher().getItemModel(stack).getOverrides();
+		return ((IModItemOverrideList) list).isPrecomputable() ? list : null;
+	}
+	
+	/**
+	 * @return 从budget中减去标签的节点数，超出时返回负数，不再继续遍历
+	 */
+	private static int remaining(NBTBase nbt, int budget) {
+		budget--;
+		if (budget < 0) {
+			return budget;
+		}
+		if (nbt instanceof NBTTagCompound compound) {
+			for (String key : compound.getKeySet()) {
+				budget = remaining(compound.getTag(key), budget);
+				if (budget < 0) {
+					return budget;
+				}
+			}
+		} else if (nbt instanceof NBTTagList list) {
+			for (int i = 0; i < list.tagCount() && budget >= 0; i++) {
+				budget = remaining(list.get(i), budget);
+			}
+		} else if (nbt instanceof NBTTagByteArray array) {
+			budget -= array.getByteArray().length >> 4;
+		} else if (nbt instanceof NBTTagIntArray array) {
+			budget -= array.getIntArray().length >> 4;
+		} else if (nbt instanceof NBTTagLongArray array) {
+			budget -= IModNBTTagLongArray.getLongArray(array).length >> 4;
+		}
+		return budget;
+	}
+	
+	private static void clear() {
+		synchronized (LOCK) {
+			generation++;
+			results = Collections.emptyMap();
+		}
+		inventory = null;
+		slots = new Slot[0];
+		largeCursor = 0;
+	}
+	
+	private static void submit(List<Job> jobs, List<ItemStack> removed) {
+		int submitted;
+		synchronized (LOCK) {
+			submitted = generation;
+		}
+		EXECUTOR.execute(() -> {
+			List<Result> computed = new ArrayList<>(jobs.size());
+			for (Job job : jobs) {
+				try {
+					Result result = job.compute();
+					if (result != null) {
+						computed.add(result);
+					}
+				} catch (RuntimeException e) {
+					ItemOverlayState.LOGGER.warn("Failed to precompute override for {}", job.snapshot, e);
+				}
+			}
+			synchronized (LOCK) {
+				if (submitted != generation) {
+					return;
+				}
+				Map<ItemStack, Result> next = new IdentityHashMap<>(results);
+				for (ItemStack stack : removed) {
+					next.remove(stack);
+				}
+				for (Result result : computed) {
+					next.put(result.stack, result);
+				}
+				results = next;
+			}
+		});
+	}
+	
+	/**
+	 * 客户端线程上记录的格子状态
+	 */
+	private static final class Slot {
+		private final ItemStack      stack;
+		private final int            count;
+		private final int            metadata;
+		private final int            damage;
+		private final NBTTagCompound nbt;
+		private final boolean        watched;  // NBT是否足够小，可以每个tick检查内容
+		private final long           nbtHash;  // NBT内容的指纹，用于发现原地修改，不检查时为NONE
+		private final boolean        timed;    // 覆盖列表的结果是否取决于世界时间
+		private volatile boolean     replaced; // 客户端线程发现格子已经变化
+		
+		private Slot(ItemStack stack, boolean timed) {
+			this.stack = stack;
+			this.timed = timed;
+			this.count = stack.getCount();
+			this.metadata = stack.getMetadata();
+			this.damage = stack.getItemDamage();
+			this.nbt = stack.getTagCompound();
+			this.watched = nbt == null || remaining(nbt, WATCH_LIMIT) >= 0;
+			this.nbtHash = nbt != null && watched ? IosNbtFingerprint.hash(nbt) : IosNbtFingerprint.NONE;
+		}
+		
+		/**
+		 * 物品对象相同、数值和NBT对象都没有变化，并且客户端线程没有发现NBT被原地修改
+		 */
+		private boolean matches(ItemStack stack) {
+			return this.stack == stack && count == stack.getCount() && metadata == stack.getMetadata()
+					&& damage == stack.getItemDamage() && nbt == stack.getTagCompound() && !replaced;
+		}
+		
+		/**
+		 * 只在客户端线程调用，在{@link #matches}之外比较较小的NBT的内容，没有NBT或NBT过大时只比较引用和数值
+		 */
+		private boolean isCurrent(ItemStack stack) {
+			return matches(stack) && (nbt == null || !watched || IosNbtFingerprint.hash(nbt) == nbtHash);
+		}
+		
+		/**
+		 * @return 如果仍是同一个NBT对象但内容已经变化返回true，否则返回false
+		 */
+		private boolean isEditedInPlace(ItemStack stack) {
+			return nbt != null && watched && nbt == stack.getTagCompound() && IosNbtFingerprint.hash(nbt) != nbtHash;
+		}
+	}
+	
+	/**
+	 * 交给后台线程的计算任务，物品快照只在后台线程中使用
+	 */
+	private static final class Job {
+		private final ItemOverrideList list;
+		private final Slot             slot;     // 原物品和提交时的状态
+		private final ItemStack        snapshot; // 物品快照
+		private final int              epoch;    // 提交时的时间跳变计数
+		
+		private Job(Slot slot, ItemOverrideList list) {
+			this.list = list;
+			this.slot = slot;
+			this.snapshot = slot.stack.copy();
+			this.epoch = IosWorldClock.getEpoch();
+		}
+		
+		/**
+		 * @return 计算结果，结果会随时间变化时返回null
+		 */
+		@Nullable
+		private Result compute() {
+			ResourceLocation model = ((IModItemOverrideList) list).evaluate(snapshot);
+			if (((IModItemOverrideList) list).stableTicks() != Long.MAX_VALUE) {
+				return null;
+			}
+			return new Result(list, slot, model == null ? IosOverrideCache.NO_OVERRIDE : model, epoch);
+		}
+	}
+	
+	/**
+	 * 预计算的结果，发布后不可变
+	 */
+	private static final class Result {
+		private final ItemOverrideList list;
+		private final ItemStack        stack;
+		private final Slot             slot;
+		private final ResourceLocation model;
+		private final int              epoch;
+		
+		private Result(ItemOverrideList list, Slot slot, ResourceLocation model, int epoch) {
+			this.list = list;
+			this.stack = slot.stack;
+			this.slot = slot;
+			this.model = model;
+			this.epoch = epoch;
+		}
+		
+		/**
+		 * 物品在上次检查之后可能已经变化，读取时再比较一次，取决于时间的结果在时间跳变后失效
+		 */
+		private boolean matches(ItemOverrideList list, ItemStack stack) {
+			return this.list == list && slot.matches(stack) && (!slot.timed || IosWorldClock.getEpoch() == epoch);
+		}
+	}
+}
@@ -0,0 +1,185 @@
+package xiaojin.itemoverlaystate.client;
+
+import com.google.gson.JsonElement;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.ItemModelMesher;
+import net.minecraft.client.renderer.block.model.ItemOverride;
+import net.minecraft.client.renderer.block.model.ItemOverrideList;
+import net.minecraft.creativetab.CreativeTabs;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.NonNullList;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import xiaojin.itemoverlaystate.mixinimod.client.IModItemOverride;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * ios:覆盖数据的内存占用报告
+ *
+ * <p>遍历所有物品的模型，估计每个覆盖保留的谓词文本、编译后的条件和尚未释放的JSON的大小，按物品和模组汇总。
+ * 多个覆盖共享的对象只计算一次，计入最先遇到它的物品。大小按64位JVM开启压缩指针估计，只用于比较</p>
+ */
+@SideOnly(Side.CLIENT)
+public final class IosMemoryReport {
+	private static final String PACKAGE = "xiaojin.itemoverlaystate.";
+	
+	private IosMemoryReport() {
+	}
+	
+	/**
+	 * 生成报告，需要在客户端线程调用
+	 *
+	 * @param top 列出占用最多的物品和模组的数量
+	 * @return 每行的文本
+	 */
+	public static List<String> report(int top) {
+		ItemModelMesher mesher = Minecraft.getMinecraft().getRenderItem().getItemModelMesher();
+		Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+		Map<String, long[]> items = new HashMap<>(); // 物品 -> {覆盖数量, 字节数}
+		Map<String, long[]> mods = new HashMap<>();
+		long overrides = 0;
+		long total = 0;
+		for (Item item : Item.REGISTRY) {
+			ResourceLocation name = item.getRegistryName();
+			if (name == null) {
+				continue;
+			}
+			NonNullList<ItemStack> stacks = NonNullList.create();
+			item.getSubItems(CreativeTabs.SEARCH, stacks);
+			if (stacks.isEmpty()) {
+				stacks.add(new ItemStack(item));
+			}
+			for (ItemStack stack : stacks) {
+				ItemOverrideList list = mesher.getItemModel(stack).getOverrides();
+				if (!seen.add(list)) {
+					continue;
+				}
+				for (ItemOverride override : list.getOverrides()) {
+					IModItemOverride mod = (IModItemOverride) override;
+					Map<ResourceLocation, JsonElement> values = mod.getMapResourceValues();
+					if (values == null ? mod.getSource().isEmpty() : values.isEmpty()) {
+						continue;
+					}
+					long size = sizeOf(mod, seen);
+					overrides++;
+					total += size;
+					add(items, name.toString(), size);
+					add(mods, name.getNamespace(), size);
+				}
+			}
+		}
+		List<String> lines = new ArrayList<>();
+		lines.add(String.format("ios覆盖数据：%d 个覆盖，约 %s", overrides, format(total)));
+		for (Map.Entry<String, long[]> entry : largest(mods, top)) {
+			lines.add(String.format("模组 %s：%d 个覆盖，约 %s", entry.getKey(), entry.getValue()[0], format(entry.getValue()[1])));
+		}
+		for (Map.Entry<String, long[]> entry : largest(items, top)) {
+			lines.add(String.format("物品 %s：%d 个覆盖，约 %s", entry.getKey(), entry.getValue()[0], format(entry.getValue()[1])));
+		}
+		return lines;
+	}
+	
+	/**
+	 * @return 覆盖保留的ios:数据中尚未计算过的字节数
+	 */
+	private static long sizeOf(IModItemOverride override, Set<Object> seen) {
+		Map<ResourceLocation, JsonElement> values = override.getMapResourceValues();
+		if (values != null) {
+			// 尚未编译，保留的是JSON
+			if (!seen.add(values)) {
+				return 0;
+			}
+			long size = IosPredicatePool.mapSize(values.size());
+			for (JsonElement json : values.values()) {
+				size += IosPredicatePool.jsonSize(json);
+			}
+			return size;
+		}
+		return sizeOf(override.getSource(), seen) + sizeOf(override.getCondition(), seen);
+	}
+	
+	/**
+	 * 递归估计本模组对象的大小，其他对象（物品、正则表达式等）只计对象头
+	 */
+	private static long sizeOf(Object object, Set<Object> seen) {
+		if (object == null || !seen.add(object)) {
+			return 0;
+		}
+		Class<?> type = object.getClass();
+		if (type == String.class) {
+			return IosPredicatePool.stringSize((String) object);
+		}
+		if (type.isArray()) {
+			Class<?> component = type.getComponentType();
+			int length = Array.getLength(object);
+			if (component.isPrimitive()) {
+				return align(16 + (long) length * primitiveSize(component));
+			}
+			long size = align(16 + 4L * length);
+			for (Object element : (Object[]) object) {
+				size += sizeOf(element, seen);
+			}
+			return size;
+		}
+		if (!type.getName().startsWith(PACKAGE)) {
+			return 16;
+		}
+		long size = 12;
+		for (Class<?> c = type; c != Object.class; c = c.getSuperclass()) {
+			for (Field field : c.getDeclaredFields()) {
+				if (Modifier.isStatic(field.getModifiers())) {
+					continue;
+				}
+				if (field.getType().isPrimitive()) {
+					size += primitiveSize(field.getType());
+					continue;
+				}
+				size += 4;
+				try {
+					field.setAccessible(true);
+					size += sizeOf(field.get(object), seen);
+				} catch (ReflectiveOperationException | RuntimeException ignored) {
+					// 无法访问的字段只计引用
+				}
+			}
+		}
+		return align(size);
+	}
+	
+	private static int primitiveSize(Class<?> type) {
+		if (type == long.class || type == double.class) {
+			return 8;
+		} else if (type == int.class || type == float.class) {
+			return 4;
+		} else if (type == short.class || type == char.class) {
+			return 2;
+		}
+		return 1;
+	}
+	
+	private static long align(long size) {
+		return (size + 7) & ~7L;
+	}
+	
+	private static void add(Map<String, long[]> totals, String key, long size) {
+		long[] total = totals.computeIfAbsent(key, k -> new long[2]);
+		total[0]++;
+		total[1] += size;
+	}
+	
+	private static List<Map.Entry<String, long[]>> largest(Map<String, long[]> totals, int top) {
+		List<Map.Entry<String, long[]>> entries = new ArrayList<>(totals.entrySet());
+		entries.sort((a, b) -> Long.compare(b.getValue()[1], a.getValue()[1]));
+		return entries.subList(0, Math.min(top, entries.size()));
+	}
+	
+	private static String format(long bytes) {
+		return bytes < 1024 ? bytes + " B" : String.format("%.1f KB", bytes / 1024.0);
+	}
+}
@@ -0,0 +1,270 @@
+package xiaojin.itemoverlaystate.client;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.item.Item;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import xiaojin.itemoverlaystate.IosConfig;
+import xiaojin.itemoverlaystate.ItemOverlayState;
+import xiaojin.itemoverlaystate.client.condition.IosConditionType;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 覆盖匹配的运行时统计
+ *
+ * <p>使用{@code -Ditemoverlaystate.metrics=true}启动时开启。开关是静态常量，关闭时JIT会直接删除统计分支，
+ * 条件也不会被包装，热路径上没有任何额外开销。计数使用{@link LongAdder}分段累加，耗时按2的幂分桶统计</p>
+ */
+@SideOnly(Side.CLIENT)
+public final class IosMetrics {
+	/**
+	 * 是否开启统计
+	 */
+	public static final boolean ENABLED = Boolean.getBoolean("itemoverlaystate.metrics");
+	
+	private static final    Histogram                                                               MATCHES    = new Histogram(); // 全部ios:覆盖的匹配
+	private static final    Map<IosConditionType, Histogram>                                        CONDITIONS = new EnumMap<>(IosConditionType.class);
+	private static final    ConcurrentHashMap<Item, ConcurrentHashMap<ResourceLocation, Histogram>> OVERRIDES  = new ConcurrentHashMap<>();
+	private static volatile long                                                                    since      = System.currentTimeMillis(); // 统计开始的时间
+	
+	static {
+		for (IosConditionType type : IosConditionType.values()) {
+			CONDITIONS.put(type, new Histogram());
+		}
+	}
+	
+	private IosMetrics() {
+	}
+	
+	/**
+	 * 记录一次覆盖匹配
+	 *
+	 * @param item  物品
+	 * @param model 覆盖模型
+	 * @param start 开始时的{@link System#nanoTime()}
+	 */
+	public static void recordMatch(Item item, ResourceLocation model, long start) {
+		long nanos = System.nanoTime() - start;
+		MATCHES.record(nanos);
+		ConcurrentHashMap<ResourceLocation, Histogram> byModel = OVERRIDES.get(item);
+		if (byModel == null) {
+			byModel = OVERRIDES.computeIfAbsent(item, k -> new ConcurrentHashMap<>());
+		}
+		Histogram histogram = byModel.get(model);
+		if (histogram == null) {
+			histogram = byModel.computeIfAbsent(model, k -> new Histogram());
+		}
+		histogram.record(nanos);
+	}
+	
+	/**
+	 * 记录一次条件判断
+	 *
+	 * @param type  条件类型
+	 * @param start 开始时的{@link System#nanoTime()}
+	 */
+	public static void recordCondition(IosConditionType type, long start) {
+		CONDITIONS.get(type).record(System.nanoTime() - start);
+	}
+	
+	/**
+	 * 清空统计
+	 */
+	public static void reset() {
+		MATCHES.reset();
+		for (Histogram histogram : CONDITIONS.values()) {
+			histogram.reset();
+		}
+		OVERRIDES.clear();
+		since = System.currentTimeMillis();
+	}
+	
+	/**
+	 * 调试界面（F3）显示的摘要
+	 *
+	 * @param top 显示最慢的覆盖数量
+	 * @return 每行的文本
+	 */
+	public static List<String> summary(int top) {
+		List<String> lines = new ArrayList<>();
+		lines.add(String.format("ios: %d matches, mean %s, p99 %s, max %s", MATCHES.count(), format(MATCHES.mean()),
+				format(MATCHES.percentile(0.99)), format(MATCHES.max())));
+		lines.add(String.format("ios cache: %d hits, %d misses, %d entries", IosOverrideCache.getHits(), IosOverrideCache.getMisses(), IosOverrideCache.size()));
+		if (IosConfig.frameBudgetMicros > 0) {
+			lines.add(String.format("ios budget: %dus, %d deferred", IosConfig.frameBudgetMicros, IosFrameBudget.getDeferred()));
+		}
+		for (OverrideStat stat : slowest(top)) {
+			lines.add(String.format("ios slow: %s %s p99 %s", stat.item, stat.model, format(stat.histogram.percentile(0.99))));
+		}
+		return lines;
+	}
+	
+	/**
+	 * 完整的统计报告
+	 *
+	 * @return 每行的文本
+	 */
+	public static List<String> report() {
+		List<String> lines = new ArrayList<>();
+		double seconds = Math.max(1, System.currentTimeMillis() - since) / 1000.0;
+		lines.add(String.format("ItemOverlayState metrics over %.1fs", seconds));
+		lines.add("");
+		lines.add("[matches]");
+		lines.add(describe("all", MATCHES, seconds));
+		lines.add(String.format("cache hits=%d misses=%d entries=%d", IosOverrideCache.getHits(), IosOverrideCache.getMisses(), IosOverrideCache.size()));
+		lines.add("");
+		lines.add("[conditions]");
+		for (Map.Entry<IosConditionType, Histogram> entry : CONDITIONS.entrySet()) {
+			if (entry.getValue().count() > 0) {
+				lines.add(describe(entry.getKey().getKey(), entry.getValue(), seconds));
+			}
+		}
+		lines.add("");
+		lines.add("[slowest overrides by p99]");
+		for (OverrideStat stat : slowest(50)) {
+			lines.add(describe(stat.item + " -> " + stat.model, stat.histogram, seconds));
+		}
+		return lines;
+	}
+	
+	/**
+	 * 把完整报告写入日志和{@code 游戏目录/itemoverlaystate/metrics-时间.txt}
+	 *
+	 * @return 写入的文件
+	 */
+	public static File dump() throws IOException {
+		List<String> lines = report();
+		for (String line : lines) {
+			ItemOverlayState.LOGGER.info(line);
+		}
+		File dir = new File(Minecraft.getMinecraft().gameDir, "itemoverlaystate");
+		if (!dir.isDirectory() && !dir.mkdirs()) {
+			throw new IOException("Cannot create " + dir);
+		}
+		File file = new File(dir, "metrics-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".txt");
+		Files.write(file.toPath(), lines, StandardCharsets.UTF_8);
+		return file;
+	}
+	
+	private static List<OverrideStat> slowest(int top) {
+		List<OverrideStat> stats = new ArrayList<>();
+		for (Map.Entry<Item, ConcurrentHashMap<ResourceLocation, Histogram>> byItem : OVERRIDES.entrySet()) {
+			ResourceLocation item = byItem.getKey().getRegistryName();
+			for (Map.Entry<ResourceLocation, Histogram> byModel : byItem.getValue().entrySet()) {
+				stats.add(new OverrideStat(String.valueOf(item), byModel.getKey(), byModel.getValue()));
+			}
+		}
+		stats.sort(Comparator.comparingLong((OverrideStat stat) -> stat.histogram.percentile(0.99)).reversed());
+		return stats.size() > top ? stats.subList(0, top) : stats;
+	}
+	
+	private static String describe(String name, Histogram histogram, double seconds) {
+		return String.format("%s: count=%d rate=%.0f/s mean=%s p50=%s p99=%s max=%s total=%s", name, histogram.count(),
+				histogram.count() / seconds, format(histogram.mean()), format(histogram.percentile(0.5)),
+				format(histogram.percentile(0.99)), format(histogram.max()), format(histogram.total()));
+	}
+	
+	private static String format(long nanos) {
+		if (nanos < 1_000) {
+			return nanos + "ns";
+		} else if (nanos < 1_000_000) {
+			return String.format("%.1fus", nanos / 1_000.0);
+		}
+		return String.format("%.2fms", nanos / 1_000_000.0);
+	}
+	
+	private static final class OverrideStat {
+		private final String           item;
+		private final ResourceLocation model;
+		private final Histogram        histogram;
+		
+		private OverrideStat(String item, ResourceLocation model, Histogram histogram) {
+			this.item = item;
+			this.model = model;
+			this.histogram = histogram;
+		}
+	}
+	
+	/**
+	 * 耗时直方图，第i个桶记录[2^(i-1), 2^i)纳秒的次数
+	 */
+	private static final class Histogram {
+		private static final int BUCKETS = 40;
+		
+		private final LongAdder[]     buckets = new LongAdder[BUCKETS];
+		private final LongAdder       count   = new LongAdder();
+		private final LongAdder       total   = new LongAdder(); // 总耗时
+		private final LongAccumulator max     = new LongAccumulator(Math::max, 0);
+		
+		private Histogram() {
+			for (int i = 0; i < BUCKETS; i++) {
+				buckets[i] = new LongAdder();
+			}
+		}
+		
+		private void record(long nanos) {
+			if (nanos < 0) {
+				nanos = 0;
+			}
+			buckets[Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos))].increment();
+			count.increment();
+			total.add(nanos);
+			max.accumulate(nanos);
+		}
+		
+		private long count() {
+			return count.sum();
+		}
+		
+		private long total() {
+			return total.sum();
+		}
+		
+		private long max() {
+			return max.get();
+		}
+		
+		private long mean() {
+			long count = count();
+			return count == 0 ? 0 : total() / count;
+		}
+		
+		/**
+		 * @return 分位数所在桶的上界，最高的桶用最大值代替
+		 */
+		private long percentile(double quantile) {
+			long count = count();
+			if (count == 0) {
+				return 0;
+			}
+			long rank = (long) Math.ceil(count * quantile);
+			long seen = 0;
+			for (int i = 0; i < BUCKETS; i++) {
+				seen += buckets[i].sum();
+				if (seen >= rank) {
+					return i == BUCKETS - 1 ? max() : Math.min(max(), (1L << i) - 1);
+				}
+			}
+			return max();
+		}
+		
+		private void reset() {
+			for (LongAdder bucket : buckets) {
+				bucket.reset();
+			}
+			count.reset();
+			total.reset();
+			max.reset();
+		}
+	}
+}
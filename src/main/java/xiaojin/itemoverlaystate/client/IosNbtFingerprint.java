@@ -0,0 +1,154 @@
+package xiaojin.itemoverlaystate.client;
+
+import com.google.common.collect.MapMaker;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.*;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import xiaojin.itemoverlaystate.mixinimod.IModNBTTagLongArray;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * NBT结构指纹
+ *
+ * <p>对{@link NBTTagCompound}计算64位的结构哈希，相等的标签指纹一定相同，不同的标签指纹相同的概率约为2^-64。
+ * 结果按标签对象记录在弱引用的表中，同一个标签对象只计算一次，标签被替换后旧的记录随之回收。
+ * 记录只在标签被替换时失效：服务器同步物品时总是创建新的标签，但客户端的{@code Item.onUpdate}等代码可能原地修改标签，
+ * 这时需要调用{@link #invalidate(NBTTagCompound)}或{@link #refresh(NBTTagCompound)}。玩家物品栏中的原地修改由{@link IosInventoryPrecompute}检查并调用，
+ * 与是否开启预计算无关</p>
+ */
+@SideOnly(Side.CLIENT)
+public final class IosNbtFingerprint {
+	/**
+	 * 没有NBT时的指纹
+	 */
+	public static final long NONE = 0L;
+	
+	private static final ConcurrentMap<NBTTagCompound, Long> MEMO = new MapMaker().weakKeys().makeMap(); // 按引用比较的弱键表
+	
+	private IosNbtFingerprint() {
+	}
+	
+	/**
+	 * @return 物品NBT的指纹，没有NBT时为{@link #NONE}
+	 */
+	public static long of(ItemStack stack) {
+		return of(stack.getTagCompound());
+	}
+	
+	/**
+	 * @return 标签的指纹，标签为null时为{@link #NONE}
+	 */
+	public static long of(@Nullable NBTTagCompound nbt) {
+		if (nbt == null) {
+			return NONE;
+		}
+		Long memo = MEMO.get(nbt);
+		if (memo != null) {
+			return memo;
+		}
+		long fingerprint = hash(nbt);
+		MEMO.put(nbt, fingerprint);
+		return fingerprint;
+	}
+	
+	/**
+	 * 丢弃标签的指纹记录，原地修改标签后调用
+	 */
+	public static void invalidate(NBTTagCompound nbt) {
+		MEMO.remove(nbt);
+	}
+	
+	/**
+	 * 重新计算已有记录的标签的指纹，内容被原地修改时更新记录
+	 *
+	 * @return 如果记录被更新返回true，没有记录或内容没有变化时返回false
+	 */
+	public static boolean refresh(NBTTagCompound nbt) {
+		Long memo = MEMO.get(nbt);
+		if (memo == null) {
+			return false;
+		}
+		long fingerprint = hash(nbt);
+		if (fingerprint == memo) {
+			return false;
+		}
+		MEMO.put(nbt, fingerprint);
+		return true;
+	}
+	
+	/**
+	 * 计算标签的指纹，不使用也不写入记录
+	 *
+	 * @return 指纹，不会是{@link #NONE}
+	 */
+	public static long hash(NBTBase nbt) {
+		long h = mix(hashOf(nbt));
+		return h == NONE ? 1L : h;
+	}
+	
+	private static long hashOf(NBTBase nbt) {
+		long h = nbt.getId() * 0x9E3779B97F4A7C15L;
+		if (nbt instanceof NBTTagCompound compound) {
+			// 复合标签的键没有顺序，各个键值对的哈希相加
+			long sum = 0;
+			for (String key : compound.getKeySet()) {
+				sum += mix(hashOf(key) ^ Long.rotateLeft(hashOf(compound.getTag(key)), 29));
+			}
+			return h ^ sum ^ compound.getSize();
+		} else if (nbt instanceof NBTTagList list) {
+			int count = list.tagCount();
+			for (int i = 0; i < count; i++) {
+				h = mix(h + hashOf(list.get(i)));
+			}
+			return h ^ count;
+		} else if (nbt instanceof NBTTagString string) {
+			return h ^ hashOf(string.getString());
+		} else if (nbt instanceof NBTTagFloat number) {
+			return h ^ Float.floatToIntBits(number.getFloat());
+		} else if (nbt instanceof NBTTagDouble number) {
+			return h ^ Double.doubleToLongBits(number.getDouble());
+		} else if (nbt instanceof NBTPrimitive number) {
+			return h ^ number.getLong();
+		} else if (nbt instanceof NBTTagByteArray array) {
+			byte[] data = array.getByteArray();
+			for (byte value : data) {
+				h = h * 0x100000001B3L + value;
+			}
+			return mix(h) ^ data.length;
+		} else if (nbt instanceof NBTTagIntArray array) {
+			int[] data = array.getIntArray();
+			for (int value : data) {
+				h = mix(h + value);
+			}
+			return h ^ data.length;
+		} else if (nbt instanceof NBTTagLongArray array) {
+			long[] data = IModNBTTagLongArray.getLongArray(array);
+			for (long value : data) {
+				h = mix(h + value);
+			}
+			return h ^ data.length;
+		}
+		// 其他模组的自定义标签
+		return h ^ nbt.hashCode();
+	}
+	
+	private static long hashOf(String value) {
+		long h = 0xCBF29CE484222325L;
+		for (int i = 0; i < value.length(); i++) {
+			h = (h ^ value.charAt(i)) * 0x100000001B3L;
+		}
+		return mix(h ^ value.length());
+	}
+	
+	/**
+	 * SplitMix64的最终混合
+	 */
+	private static long mix(long h) {
+		h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+		h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+		return h ^ (h >>> 31);
+	}
+}
@@ -0,0 +1,230 @@
+package xiaojin.itemoverlaystate.client;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.block.model.ItemOverride;
+import net.minecraft.client.renderer.block.model.ItemOverrideList;
+import net.minecraft.client.resources.IReloadableResourceManager;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import xiaojin.itemoverlaystate.IosConfig;
+import xiaojin.itemoverlaystate.client.condition.IosCondition;
+import xiaojin.itemoverlaystate.mixinimod.client.IModItemOverride;
+
+import javax.annotation.Nullable;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 覆盖匹配缓存
+ *
+ * <p>以物品、元数据、数量、损坏值和NBT指纹（{@link IosNbtFingerprint}）为键，缓存{@link ItemOverrideList}选中的覆盖模型，按LRU淘汰，资源重载时清空。
+ * 含有ios:day、ios:time的覆盖列表按{@link IosWorldClock}推算结果下次可能变化的tick，到期或时间跳变后重新判断，其他结果不受时间跳变影响</p>
+ */
+@SideOnly(Side.CLIENT)
+public class IosOverrideCache {
+	/**
+	 * 表示没有匹配的覆盖
+	 */
+	public static final  ResourceLocation NO_OVERRIDE = new ResourceLocation("ios", "no_override");
+	private static final Map<Key, Entry>  CACHE       = new LinkedHashMap<Key, Entry>(256, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+			return size() > IosConfig.matchCacheSize;
+		}
+	};
+	private static final Key              PROBE       = new Key(); // 查询用的键，避免每次查询都创建对象
+	private static       long             hits;
+	private static       long             misses;
+	
+	/**
+	 * 注册资源重载监听，重载后清空缓存
+	 */
+	public static void init() {
+		((IReloadableResourceManager) Minecraft.getMinecraft().getResourceManager()).registerReloadListener(resourceManager -> clear());
+	}
+	
+	/**
+	 * 判断覆盖列表的结果是否只取决于物品本身，只有这样的列表才能缓存
+	 *
+	 * @param overrides 覆盖列表
+	 * @return 如果可以缓存返回true，否则返回false
+	 */
+	public static boolean isCacheable(List<ItemOverride> overrides) {
+		if (overrides.isEmpty()) {
+			return false;
+		}
+		for (ItemOverride override : overrides) {
+			IModItemOverride mod = (IModItemOverride) override;
+			IosCondition condition = mod.getCondition();
+			// 原版属性的获取器可以读取世界和实体
+			if (condition == null || condition.dependsOnWorld() || mod.hasVanillaPredicates()) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * 计算覆盖列表的结果至少还能保持多少个客户端tick不变
+	 *
+	 * @param overrides 可以缓存的覆盖列表
+	 * @return 保持不变的tick数，为0时不应写入缓存
+	 */
+	public static long stableTicks(List<ItemOverride> overrides) {
+		long ticks = Long.MAX_VALUE;
+		for (ItemOverride override : overrides) {
+			IosCondition condition = ((IModItemOverride) override).getCondition();
+			if (condition != null) {
+				ticks = Math.min(ticks, condition.stableTicks());
+			}
+		}
+		return ticks;
+	}
+	
+	/**
+	 * 判断覆盖列表的结果是否取决于世界时间
+	 *
+	 * @param overrides 可以缓存的覆盖列表
+	 * @return 如果含有取决于世界时间的条件返回true，否则返回false
+	 */
+	public static boolean dependsOnTime(List<ItemOverride> overrides) {
+		for (ItemOverride override : overrides) {
+			IosCondition condition = ((IModItemOverride) override).getCondition();
+			if (condition != null && condition.dependsOnTime()) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * 查询缓存
+	 *
+	 * @return 缓存的覆盖模型，没有匹配的覆盖时为{@link #NO_OVERRIDE}，未命中时为null
+	 */
+	@Nullable
+	public static synchronized ResourceLocation get(ItemOverrideList list, ItemStack stack) {
+		if (IosConfig.matchCacheSize <= 0) {
+			return null;
+		}
+		PROBE.set(list, stack, IosNbtFingerprint.of(stack));
+		Entry entry = CACHE.get(PROBE);
+		if (entry != null && !entry.isValid()) {
+			CACHE.remove(PROBE);
+			entry = null;
+		}
+		PROBE.list = null;
+		PROBE.item = null;
+		if (entry == null) {
+			misses++;
+			return null;
+		}
+		hits++;
+		return entry.result;
+	}
+	
+	/**
+	 * 写入缓存，键中只保存NBT的指纹，不会复制NBT
+	 *
+	 * @param result      选中的覆盖模型，没有匹配的覆盖时为null
+	 * @param stableTicks   结果保持不变的tick数，见{@link #stableTicks(List)}
+	 * @param dependsOnTime 结果是否取决于世界时间，见{@link #dependsOnTime(List)}
+	 */
+	public static synchronized void store(ItemOverrideList list, ItemStack stack, @Nullable ResourceLocation result, long stableTicks, boolean dependsOnTime) {
+		if (IosConfig.matchCacheSize <= 0 || stableTicks <= 0) {
+			return;
+		}
+		Key key = new Key();
+		key.set(list, stack, IosNbtFingerprint.of(stack));
+		long tick = IosWorldClock.getTick();
+		long expiresAt = stableTicks == Long.MAX_VALUE || tick > Long.MAX_VALUE - stableTicks ? Long.MAX_VALUE : tick + stableTicks;
+		CACHE.put(key, new Entry(result == null ? NO_OVERRIDE : result, expiresAt, dependsOnTime, IosWorldClock.getEpoch()));
+	}
+	
+	/**
+	 * 清空缓存
+	 */
+	public static synchronized void clear() {
+		CACHE.clear();
+	}
+	
+	public static synchronized long getHits() {
+		return hits;
+	}
+	
+	public static synchronized long getMisses() {
+		return misses;
+	}
+	
+	public static synchronized int size() {
+		return CACHE.size();
+	}
+	
+	private static final class Entry {
+		private final ResourceLocation result;
+		private final long             expiresAt; // 过期的客户端tick，不会到期时为Long.MAX_VALUE
+		private final boolean          timed;     // 是否取决于世界时间
+		private final int              epoch;     // 写入时的时间跳变计数
+		
+		private Entry(ResourceLocation result, long expiresAt, boolean timed, int epoch) {
+			this.result = result;
+			this.expiresAt = expiresAt;
+			this.timed = timed;
+			this.epoch = epoch;
+		}
+		
+		/**
+		 * 已经满足的ios:day、ios:time不会到期，但时间倒退后可能不再满足，所以时间跳变只检查取决于时间的结果
+		 */
+		private boolean isValid() {
+			return (expiresAt == Long.MAX_VALUE || IosWorldClock.getTick() < expiresAt) && (!timed || IosWorldClock.getEpoch() == epoch);
+		}
+	}
+	
+	private static final class Key {
+		private ItemOverrideList list;
+		private Item             item;
+		private int              metadata;
+		private int              count;
+		private int              damage;
+		private long             nbt;  // NBT指纹
+		private int              hash;
+		
+		private void set(ItemOverrideList list, ItemStack stack, long nbt) {
+			this.list = list;
+			this.item = stack.getItem();
+			this.metadata = stack.getMetadata();
+			this.count = stack.getCount();
+			this.damage = stack.getItemDamage();
+			this.nbt = nbt;
+			int h = System.identityHashCode(list);
+			h = 31 * h + System.identityHashCode(item);
+			h = 31 * h + metadata;
+			h = 31 * h + count;
+			h = 31 * h + damage;
+			h = 31 * h + Long.hashCode(nbt);
+			this.hash = h;
+		}
+		
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key key)) {
+				return false;
+			}
+			return list == key.list && item == key.item && metadata == key.metadata && count == key.count
+					&& damage == key.damage && nbt == key.nbt;
+		}
+		
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+}
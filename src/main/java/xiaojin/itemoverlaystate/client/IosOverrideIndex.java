@@ -0,0 +1,220 @@
+package xiaojin.itemoverlaystate.client;
+
+import net.minecraft.client.renderer.block.model.ItemOverride;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import xiaojin.itemoverlaystate.client.condition.IosCondition;
+import xiaojin.itemoverlaystate.client.condition.ThresholdCondition;
+import xiaojin.itemoverlaystate.client.condition.TimedCondition;
+import xiaojin.itemoverlaystate.mixinimod.client.IModItemOverride;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 覆盖列表的索引
+ *
+ * <p>原版按顺序逐个判断覆盖，第一个满足的生效。连续的、只有数字{@code ios:stacking}或{@code ios:damage}（阈值或范围）的覆盖
+ * 在烘焙时合并为分段函数，按数值直接查表或二分查找；其余覆盖仍然逐个判断，整体顺序不变</p>
+ */
+@SideOnly(Side.CLIENT)
+public final class IosOverrideIndex {
+	/**
+	 * 最大的区间起点不超过该值加1时使用直接查表，覆盖一般的最大堆叠数量
+	 */
+	private static final int TABLE_LIMIT = 64;
+	/**
+	 * 连续的阈值覆盖至少有这么多个时才合并
+	 */
+	private static final int MIN_RUN     = 2;
+	
+	private final Segment[] segments;
+	
+	private IosOverrideIndex(Segment[] segments) {
+		this.segments = segments;
+	}
+	
+	/**
+	 * 为覆盖列表建立索引
+	 *
+	 * @param overrides 原版覆盖列表（已经是判断顺序）
+	 * @return 索引，没有可以合并的覆盖时返回null
+	 */
+	@Nullable
+	public static IosOverrideIndex build(List<ItemOverride> overrides) {
+		List<Segment> segments = new ArrayList<>();
+		boolean indexed = false;
+		int i = 0;
+		while (i < overrides.size()) {
+			ThresholdCondition first = thresholdOf(overrides.get(i));
+			int end = i + 1;
+			if (first != null) {
+				while (end < overrides.size()) {
+					ThresholdCondition next = thresholdOf(overrides.get(end));
+					if (next == null || next.getClass() != first.getClass()) {
+						break;
+					}
+					end++;
+				}
+			}
+			if (end - i >= MIN_RUN) {
+				segments.add(new ThresholdSegment(overrides.subList(i, end)));
+				indexed = true;
+			} else {
+				for (int j = i; j < end; j++) {
+					segments.add(new OverrideSegment(overrides.get(j)));
+				}
+			}
+			i = end;
+		}
+		return indexed ? new IosOverrideIndex(segments.toArray(new Segment[0])) : null;
+	}
+	
+	/**
+	 * 获取只由数字阈值决定的覆盖条件
+	 *
+	 * @return 阈值条件，覆盖还有其他条件时返回null
+	 */
+	@Nullable
+	private static ThresholdCondition thresholdOf(ItemOverride override) {
+		IModItemOverride mod = (IModItemOverride) override;
+		IosCondition condition = mod.getCondition();
+		if (condition != null) {
+			condition = TimedCondition.unwrap(condition);
+		}
+		if (condition instanceof ThresholdCondition threshold && !threshold.isPercentage() && !mod.hasVanillaPredicates()) {
+			return threshold;
+		}
+		return null;
+	}
+	
+	/**
+	 * 选择覆盖模型，结果与原版逐个判断相同
+	 *
+	 * @return 选中的覆盖模型，没有满足的覆盖时返回null
+	 */
+	@Nullable
+	public ResourceLocation apply(ItemStack stack, @Nullable World world, @Nullable EntityLivingBase livingEntity) {
+		for (Segment segment : segments) {
+			ResourceLocation location = segment.apply(stack, world, livingEntity);
+			if (location != null) {
+				return location;
+			}
+		}
+		return null;
+	}
+	
+	private interface Segment {
+		@Nullable
+		ResourceLocation apply(ItemStack stack, @Nullable World world, @Nullable EntityLivingBase livingEntity);
+	}
+	
+	/**
+	 * 单个覆盖，调用原版的判断
+	 */
+	private static final class OverrideSegment implements Segment {
+		private final ItemOverride     override;
+		private final ResourceLocation location;
+		
+		private OverrideSegment(ItemOverride override) {
+			this.override = override;
+			this.location = override.getLocation();
+		}
+		
+		@Nullable
+		@Override
+		public ResourceLocation apply(ItemStack stack, @Nullable World world, @Nullable EntityLivingBase livingEntity) {
+			return ((IModItemOverride) override).matches(stack, world, livingEntity) ? location : null;
+		}
+	}
+	
+	/**
+	 * 连续的同类阈值覆盖
+	 *
+	 * <p>所有覆盖的上下界把数值分成若干区间，同一区间内每个覆盖是否满足都不变。
+	 * 建立索引时按原顺序为每个区间选出第一个满足的覆盖，判断时按数值找到所在的区间直接得到结果</p>
+	 */
+	private static final class ThresholdSegment implements Segment {
+		private final ThresholdCondition condition;   // 用于读取物品的数值
+		private final int[]              breakpoints; // 从小到大排序后去重的区间起点
+		private final ResourceLocation[] locations;   // 第i+1项为从第i个起点开始的区间的覆盖模型，第0项为第一个起点之前
+		private final ResourceLocation[] table;       // 数值到覆盖模型的直接映射，边界过大时为null
+		
+		private ThresholdSegment(List<ItemOverride> overrides) {
+			int size = overrides.size();
+			this.condition = thresholdOf(overrides.get(0));
+			ThresholdCondition[] conditions = new ThresholdCondition[size];
+			int[] breakpoints = new int[size * 2];
+			int count = 0;
+			for (int i = 0; i < size; i++) {
+				conditions[i] = thresholdOf(overrides.get(i));
+				breakpoints[count++] = conditions[i].getMin();
+				if (conditions[i].getMax() != Integer.MAX_VALUE) {
+					breakpoints[count++] = conditions[i].getMax() + 1;
+				}
+			}
+			Arrays.sort(breakpoints, 0, count);
+			int unique = 0;
+			for (int i = 0; i < count; i++) {
+				if (unique == 0 || breakpoints[unique - 1] != breakpoints[i]) {
+					breakpoints[unique++] = breakpoints[i];
+				}
+			}
+			this.breakpoints = Arrays.copyOf(breakpoints, unique);
+			this.locations = new ResourceLocation[unique + 1];
+			locations[0] = first(overrides, conditions, Integer.MIN_VALUE);
+			for (int i = 0; i < unique; i++) {
+				locations[i + 1] = first(overrides, conditions, this.breakpoints[i]);
+			}
+			int last = this.breakpoints[unique - 1];
+			if (this.breakpoints[0] >= 0 && last <= TABLE_LIMIT + 1) {
+				ResourceLocation[] table = new ResourceLocation[last + 1];
+				for (int value = 0; value <= last; value++) {
+					table[value] = lookup(value);
+				}
+				this.table = table;
+			} else {
+				this.table = null;
+			}
+		}
+		
+		/**
+		 * @return 数值为value时按原顺序第一个满足的覆盖模型
+		 */
+		@Nullable
+		private static ResourceLocation first(List<ItemOverride> overrides, ThresholdCondition[] conditions, int value) {
+			for (int i = 0; i < conditions.length; i++) {
+				if (conditions[i].getMin() <= value && value <= conditions[i].getMax()) {
+					return overrides.get(i).getLocation();
+				}
+			}
+			return null;
+		}
+		
+		@Nullable
+		@Override
+		public ResourceLocation apply(ItemStack stack, @Nullable World world, @Nullable EntityLivingBase livingEntity) {
+			int value = condition.getValue(stack);
+			if (table != null && value >= 0) {
+				return value < table.length ? table[value] : locations[locations.length - 1];
+			}
+			return lookup(value);
+		}
+		
+		@Nullable
+		private ResourceLocation lookup(int value) {
+			int index = Arrays.binarySearch(breakpoints, value);
+			if (index < 0) {
+				// 最后一个小于value的起点
+				index = -index - 2;
+			}
+			return locations[index + 1];
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package xiaojin.itemoverlaystate.client;
+
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import xiaojin.itemoverlaystate.mixinimod.client.IModItemOverride;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * ios:谓词的批量编译
+ *
+ * <p>反序列化模型时只记录含有ios:谓词的覆盖，第一次创建{@link net.minecraft.client.renderer.block.model.ItemOverrideList}
+ * （烘焙阶段）时用ForkJoin公共线程池并行编译全部待编译的覆盖，资源重载的耗时随核心数而不是模型数量增长。
+ * 没有经过这里的覆盖在{@link IModItemOverride#getCondition()}中按需编译</p>
+ */
+@SideOnly(Side.CLIENT)
+public final class IosPredicateCompiler {
+	/**
+	 * 少于该数量时直接在当前线程编译，不值得分发任务
+	 */
+	private static final int PARALLEL_THRESHOLD = 64;
+	
+	private static final Queue<IModItemOverride> PENDING = new ConcurrentLinkedQueue<>();
+	
+	private IosPredicateCompiler() {
+	}
+	
+	/**
+	 * 记录待编译的覆盖
+	 *
+	 * @param override 含有ios:谓词的覆盖
+	 */
+	public static void enqueue(IModItemOverride override) {
+		PENDING.add(override);
+	}
+	
+	/**
+	 * 编译全部待编译的覆盖
+	 */
+	public static void compilePending() {
+		if (PENDING.isEmpty()) {
+			return;
+		}
+		List<IModItemOverride> batch = new ArrayList<>();
+		IModItemOverride override;
+		while ((override = PENDING.poll()) != null) {
+			batch.add(override);
+		}
+		// getCondition()在尚未编译时编译并保存结果
+		if (batch.size() < PARALLEL_THRESHOLD) {
+			batch.forEach(IModItemOverride::getCondition);
+		} else {
+			batch.parallelStream().forEach(IModItemOverride::getCondition);
+		}
+	}
+}
@@ -0,0 +1,193 @@
+package xiaojin.itemoverlaystate.client;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.collect.MapMaker;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import xiaojin.itemoverlaystate.client.condition.IosCondition;
+import xiaojin.itemoverlaystate.client.condition.IosConditions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 谓词规范化池
+ *
+ * <p>大型资源包在大量模型中重复使用相同的谓词（每种矿石相同的堆叠档位、每件工具相同的耐久档位）。
+ * 反序列化时把结构相同的谓词映射和键替换为同一个不可变实例，相同的ios:谓词映射也只编译一次、共享同一个条件。
+ * 池使用弱引用，不再被模型引用的实例随之回收</p>
+ */
+@SideOnly(Side.CLIENT)
+public final class IosPredicatePool {
+	private static final Interner<ResourceLocation>                                      KEYS         = Interners.newWeakInterner();
+	private static final Interner<Map<ResourceLocation, JsonElement>>                    IOS_SETS     = Interners.newWeakInterner();
+	private static final Interner<Map<ResourceLocation, Float>>                          VANILLA_SETS = Interners.newWeakInterner();
+	private static final Interner<String>                                                SOURCES      = Interners.newWeakInterner();
+	private static final ConcurrentMap<Map<ResourceLocation, JsonElement>, IosCondition> CONDITIONS   = new MapMaker().weakKeys().makeMap(); // 键按引用比较，只共享规范实例的条件
+	private static final LongAdder                                                       keys         = new LongAdder(); // 请求的键数量
+	private static final LongAdder                                                       sharedKeys   = new LongAdder(); // 复用已有实例的键数量
+	private static final LongAdder                                                       sets         = new LongAdder(); // 请求的谓词映射数量
+	private static final LongAdder                                                       sharedSets   = new LongAdder(); // 复用已有实例的谓词映射数量
+	private static final LongAdder                                                       conditions   = new LongAdder(); // 编译的条件数量
+	private static final LongAdder                                                       savedBytes   = new LongAdder(); // 估计节省的字节数
+	
+	private IosPredicatePool() {
+	}
+	
+	/**
+	 * 规范化ios:谓词映射
+	 *
+	 * @param values 反序列化得到的ios:谓词映射
+	 * @return 结构相同的映射共享的不可变实例，保持原来的键顺序
+	 */
+	public static Map<ResourceLocation, JsonElement> internIos(Map<ResourceLocation, JsonElement> values) {
+		ImmutableMap.Builder<ResourceLocation, JsonElement> builder = ImmutableMap.builder();
+		for (Map.Entry<ResourceLocation, JsonElement> entry : values.entrySet()) {
+			builder.put(intern(entry.getKey()), entry.getValue());
+		}
+		Map<ResourceLocation, JsonElement> built = builder.build();
+		Map<ResourceLocation, JsonElement> canonical = IOS_SETS.intern(built);
+		sets.increment();
+		if (canonical != built) {
+			sharedSets.increment();
+			long size = mapSize(values.size());
+			for (JsonElement json : values.values()) {
+				size += jsonSize(json);
+			}
+			savedBytes.add(size);
+		}
+		return canonical;
+	}
+	
+	/**
+	 * 规范化原版谓词映射
+	 *
+	 * @param values 反序列化得到的原版谓词映射（包括ios:键的占位值）
+	 * @return 结构相同的映射共享的不可变实例，保持原来的键顺序
+	 */
+	public static Map<ResourceLocation, Float> internVanilla(Map<ResourceLocation, Float> values) {
+		ImmutableMap.Builder<ResourceLocation, Float> builder = ImmutableMap.builder();
+		for (Map.Entry<ResourceLocation, Float> entry : values.entrySet()) {
+			builder.put(intern(entry.getKey()), entry.getValue());
+		}
+		Map<ResourceLocation, Float> built = builder.build();
+		Map<ResourceLocation, Float> canonical = VANILLA_SETS.intern(built);
+		sets.increment();
+		if (canonical != built) {
+			sharedSets.increment();
+			savedBytes.add(mapSize(values.size()) + 16L * values.size());
+		}
+		return canonical;
+	}
+	
+	/**
+	 * 规范化谓词键
+	 */
+	public static ResourceLocation intern(ResourceLocation key) {
+		ResourceLocation canonical = KEYS.intern(key);
+		keys.increment();
+		if (canonical != key) {
+			sharedKeys.increment();
+			savedBytes.add(keySize(key));
+		}
+		return canonical;
+	}
+	
+	/**
+	 * 编译ios:谓词映射，同一个规范实例只编译一次
+	 *
+	 * @param values 经过{@link #internIos(Map)}的映射，未经过时只是不能共享
+	 * @return 编译后的条件
+	 */
+	public static IosCondition compile(Map<ResourceLocation, JsonElement> values) {
+		IosCondition condition = CONDITIONS.get(values);
+		if (condition == null) {
+			condition = IosConditions.compile(values);
+			IosCondition previous = CONDITIONS.putIfAbsent(values, condition);
+			if (previous != null) {
+				condition = previous;
+			} else {
+				conditions.increment();
+			}
+		}
+		return condition;
+	}
+	
+	/**
+	 * 把ios:谓词映射转换为紧凑的JSON文本，编译后代替JSON保留用于调试
+	 *
+	 * @return 相同文本共享的实例
+	 */
+	public static String source(Map<ResourceLocation, JsonElement> values) {
+		JsonObject object = new JsonObject();
+		for (Map.Entry<ResourceLocation, JsonElement> entry : values.entrySet()) {
+			object.add(entry.getKey().toString(), entry.getValue());
+		}
+		return SOURCES.intern(object.toString());
+	}
+	
+	/**
+	 * 复用情况的报告
+	 *
+	 * @return 每行的文本
+	 */
+	public static List<String> report() {
+		List<String> lines = new ArrayList<>();
+		lines.add(String.format("谓词映射：%d 个，复用 %d 个", sets.sum(), sharedSets.sum()));
+		lines.add(String.format("谓词键：%d 个，复用 %d 个", keys.sum(), sharedKeys.sum()));
+		lines.add(String.format("编译的条件：%d 个，由 %d 个ios:谓词映射共享", conditions.sum(), CONDITIONS.size()));
+		lines.add(String.format("估计节省内存：%.1f KB", savedBytes.sum() / 1024.0));
+		return lines;
+	}
+	
+	/**
+	 * 估计LinkedHashMap（不含键和值）占用的字节数
+	 */
+	static long mapSize(int entries) {
+		int capacity = Integer.highestOneBit(Math.max(1, entries * 4 / 3)) << 1;
+		return 56 + 16 + 4L * capacity + 40L * entries;
+	}
+	
+	/**
+	 * 估计ResourceLocation占用的字节数
+	 */
+	static long keySize(ResourceLocation key) {
+		return 24 + stringSize(key.getNamespace()) + stringSize(key.getPath());
+	}
+	
+	/**
+	 * 估计Gson树占用的字节数
+	 */
+	static long jsonSize(JsonElement json) {
+		if (json instanceof JsonPrimitive primitive) {
+			return 16 + (primitive.isString() || primitive.isNumber() ? stringSize(primitive.getAsString()) : 0);
+		} else if (json instanceof JsonObject object) {
+			long size = 16 + 56;
+			for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+				size += 48 + stringSize(entry.getKey()) + jsonSize(entry.getValue());
+			}
+			return size;
+		} else if (json instanceof JsonArray array) {
+			long size = 16 + 24 + 16 + 4L * array.size();
+			for (JsonElement element : array) {
+				size += jsonSize(element);
+			}
+			return size;
+		}
+		return 16;
+	}
+	
+	static long stringSize(String value) {
+		return 24 + 16 + 2L * value.length();
+	}
+}
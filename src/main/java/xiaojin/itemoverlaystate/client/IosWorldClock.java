@@ -0,0 +1,89 @@
+package xiaojin.itemoverlaystate.client;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * 客户端世界时间快照
+ *
+ * <p>每个客户端tick结束时记录一次世界时间和总时间，ios:day和ios:time在渲染时只读取快照。
+ * 世界切换或时间跳变（/time set、睡觉）时{@link #getEpoch()}增加，依赖时间的缓存随之失效。
+ * 服务端每秒同步一次时间，低于20 TPS时客户端时间会被校正回退，{@link #DRIFT}以内的变化不算跳变</p>
+ */
+@SideOnly(Side.CLIENT)
+public class IosWorldClock {
+	/**
+	 * 服务端校时允许的误差（tick），一秒的量
+	 */
+	private static final long DRIFT = 20;
+	
+	private static volatile boolean present;   // 是否在世界中
+	private static volatile long    worldTime; // 世界时间
+	private static volatile long    totalTime; // 世界总时间
+	private static volatile long    tick;      // 客户端tick计数
+	private static volatile int     epoch;     // 时间跳变计数
+	private static          World   lastWorld;
+	
+	@SubscribeEvent
+	public void onClientTick(TickEvent.ClientTickEvent event) {
+		if (event.phase != TickEvent.Phase.END) {
+			return;
+		}
+		World world = Minecraft.getMinecraft().world;
+		if (world == null) {
+			if (lastWorld != null) {
+				lastWorld = null;
+				present = false;
+				epoch++;
+			}
+			tick++;
+			return;
+		}
+		long newWorldTime = world.getWorldTime();
+		long newTotalTime = world.getTotalWorldTime();
+		// 正常情况下每tick最多前进1，加上校时误差后超出范围的变化视为跳变
+		long worldDelta = newWorldTime - worldTime;
+		long totalDelta = newTotalTime - totalTime;
+		if (world != lastWorld || Math.abs(worldDelta) > DRIFT || Math.abs(totalDelta) > DRIFT) {
+			lastWorld = world;
+			epoch++;
+		}
+		worldTime = newWorldTime;
+		totalTime = newTotalTime;
+		present = true;
+		tick++;
+	}
+	
+	/**
+	 * @return 是否在世界中，不在时时间快照无意义
+	 */
+	public static boolean isPresent() {
+		return present;
+	}
+	
+	public static long getWorldTime() {
+		return worldTime;
+	}
+	
+	public static long getTotalTime() {
+		return totalTime;
+	}
+	
+	/**
+	 * @return 客户端tick计数，用于计算缓存的过期时间
+	 */
+	public static long getTick() {
+		return tick;
+	}
+	
+	/**
+	 * @return 时间跳变计数，与记录时不同说明按tick推算的结果已不可靠
+	 */
+	public static int getEpoch() {
+		return epoch;
+	}
+}
@@ -0,0 +1,219 @@
+package xiaojin.itemoverlaystate.client;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.entity.EntityPlayerSP;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.text.ITextComponent;
+import net.minecraft.util.text.Style;
+import net.minecraft.util.text.TextComponentString;
+import net.minecraft.util.text.event.ClickEvent;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import xiaojin.itemoverlaystate.IosConfig;
+import xiaojin.itemoverlaystate.ItemOverlayState;
+
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 物品NBT导出
+ *
+ * <p>在客户端线程只复制一份NBT快照，SNBT在后台线程中流式生成。不超过{@link IosConfig#nbtExportClipboardLimit}时复制到剪贴板，
+ * 超过时写入{@code 游戏目录/itemoverlaystate/nbt/}，聊天栏只显示开头的一部分</p>
+ */
+@SideOnly(Side.CLIENT)
+public final class NbtExporter {
+	/**
+	 * 聊天栏预览的最大字符数
+	 */
+	private static final int             PREVIEW_LENGTH = 256;
+	private static final ExecutorService EXECUTOR       = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "ItemOverlayState NBT Export");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private static final AtomicBoolean   RUNNING        = new AtomicBoolean(); // 是否有导出正在进行
+	
+	private NbtExporter() {
+	}
+	
+	/**
+	 * 导出物品的NBT，必须在客户端线程调用
+	 *
+	 * @param stack 物品
+	 */
+	public static void export(ItemStack stack) {
+		if (!RUNNING.compareAndSet(false, true)) {
+			sendMessage(new TextComponentString("上一次导出尚未完成"));
+			return;
+		}
+		// serializeNBT中的tag与物品共用，需要复制一份快照
+		NBTTagCompound snapshot = stack.serializeNBT().copy();
+		ResourceLocation id = stack.getItem().getRegistryName();
+		String name = id == null ? "unknown" : id.getNamespace() + "_" + id.getPath();
+		int limit = IosConfig.nbtExportClipboardLimit;
+		File dir = new File(new File(Minecraft.getMinecraft().gameDir, "itemoverlaystate"), "nbt");
+		EXECUTOR.execute(() -> {
+			try {
+				run(snapshot, name, limit, dir);
+			} catch (Exception e) {
+				ItemOverlayState.LOGGER.warn("Failed to export item NBT", e);
+				sendMessage(new TextComponentString("复制物品NBT失败：" + e.getMessage()));
+			} finally {
+				RUNNING.set(false);
+			}
+		});
+	}
+	
+	private static void run(NBTTagCompound snapshot, String name, int limit, File dir) throws IOException {
+		SpillWriter out = new SpillWriter(limit, () -> {
+			if (!dir.isDirectory() && !dir.mkdirs()) {
+				throw new IOException("Cannot create " + dir);
+			}
+			return new File(dir, name + "-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".snbt");
+		});
+		try {
+			SnbtWriter.write(snapshot, out);
+		} finally {
+			out.close();
+		}
+		String preview = out.preview();
+		File file = out.getFile();
+		if (file == null) {
+			String error = AdvancedClipboardUtil.setClipboard(out.getText());
+			sendMessage(new TextComponentString(error == null ? "复制物品NBT成功：" + preview : "复制物品NBT失败：" + error));
+			return;
+		}
+		TextComponentString link = new TextComponentString(file.getName());
+		link.setStyle(new Style().setUnderlined(true).setClickEvent(new ClickEvent(ClickEvent.Action.OPEN_FILE, file.getAbsolutePath())));
+		sendMessage(new TextComponentString("物品NBT共" + out.getLength() + "个字符，已写入 ").appendSibling(link));
+		sendMessage(new TextComponentString(preview));
+	}
+	
+	/**
+	 * 在客户端线程发送聊天消息
+	 */
+	private static void sendMessage(ITextComponent message) {
+		Minecraft minecraft = Minecraft.getMinecraft();
+		minecraft.addScheduledTask(() -> {
+			EntityPlayerSP player = minecraft.player;
+			if (player != null) {
+				player.sendMessage(message);
+			}
+		});
+	}
+	
+	/**
+	 * 先写入内存，超过限制后把已有内容转存到文件并继续写入文件
+	 */
+	private static final class SpillWriter extends Writer {
+		private final int           limit;
+		private final FileSupplier  fileSupplier;
+		private final StringBuilder buffer  = new StringBuilder();
+		private final StringBuilder preview = new StringBuilder(); // 开头的一部分，转存后用于预览
+		private       Writer        fileWriter;
+		private       File          file;
+		private       long          length;
+		
+		private SpillWriter(int limit, FileSupplier fileSupplier) {
+			this.limit = limit;
+			this.fileSupplier = fileSupplier;
+		}
+		
+		@Override
+		public void write(char[] cbuf, int off, int len) throws IOException {
+			if (preview.length() < PREVIEW_LENGTH) {
+				preview.append(cbuf, off, Math.min(len, PREVIEW_LENGTH - preview.length()));
+			}
+			if (reserve(len)) {
+				fileWriter.write(cbuf, off, len);
+			} else {
+				buffer.append(cbuf, off, len);
+			}
+		}
+		
+		@Override
+		public void write(int c) throws IOException {
+			if (preview.length() < PREVIEW_LENGTH) {
+				preview.append((char) c);
+			}
+			if (reserve(1)) {
+				fileWriter.write(c);
+			} else {
+				buffer.append((char) c);
+			}
+		}
+		
+		@Override
+		public void write(String str, int off, int len) throws IOException {
+			if (preview.length() < PREVIEW_LENGTH) {
+				preview.append(str, off, off + Math.min(len, PREVIEW_LENGTH - preview.length()));
+			}
+			if (reserve(len)) {
+				fileWriter.write(str, off, len);
+			} else {
+				buffer.append(str, off, off + len);
+			}
+		}
+		
+		/**
+		 * 记录即将写入的长度，超过限制时把内存中的内容转存到文件
+		 *
+		 * @return 如果应该写入文件返回true，写入内存返回false
+		 */
+		private boolean reserve(int len) throws IOException {
+			length += len;
+			if (fileWriter == null && length > limit) {
+				file = fileSupplier.get();
+				fileWriter = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
+				fileWriter.append(buffer);
+				buffer.setLength(0);
+				buffer.trimToSize();
+			}
+			return fileWriter != null;
+		}
+		
+		@Override
+		public void flush() throws IOException {
+			if (fileWriter != null) {
+				fileWriter.flush();
+			}
+		}
+		
+		@Override
+		public void close() throws IOException {
+			if (fileWriter != null) {
+				fileWriter.close();
+			}
+		}
+		
+		private String getText() {
+			return buffer.toString();
+		}
+		
+		@Nullable
+		private File getFile() {
+			return file;
+		}
+		
+		private long getLength() {
+			return length;
+		}
+		
+		private String preview() {
+			return length > preview.length() ? preview + "..." : preview.toString();
+		}
+	}
+	
+	private interface FileSupplier {
+		File get() throws IOException;
+	}
+}
@@ -0,0 +1,114 @@
+package xiaojin.itemoverlaystate.client;
+
+import net.minecraft.nbt.*;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import xiaojin.itemoverlaystate.mixinimod.IModNBTTagLongArray;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.regex.Pattern;
+
+/**
+ * 流式输出SNBT，格式与1.12的{@link NBTBase#toString()}相同
+ *
+ * <p>逐个标签写入{@link Writer}，不会在内存中拼出完整的字符串</p>
+ */
+@SideOnly(Side.CLIENT)
+public final class SnbtWriter {
+	/**
+	 * 不需要加引号的键，与{@code NBTTagCompound.SIMPLE_VALUE}相同
+	 */
+	private static final Pattern SIMPLE_VALUE = Pattern.compile("[A-Za-z0-9._+-]+");
+	
+	private SnbtWriter() {
+	}
+	
+	/**
+	 * 输出标签
+	 *
+	 * @param nbt 标签
+	 * @param out 输出
+	 */
+	public static void write(NBTBase nbt, Writer out) throws IOException {
+		if (nbt instanceof NBTTagCompound compound) {
+			out.write('{');
+			boolean first = true;
+			for (String key : compound.getKeySet()) {
+				if (!first) {
+					out.write(',');
+				}
+				first = false;
+				if (SIMPLE_VALUE.matcher(key).matches()) {
+					out.write(key);
+				} else {
+					writeQuoted(key, out);
+				}
+				out.write(':');
+				write(compound.getTag(key), out);
+			}
+			out.write('}');
+		} else if (nbt instanceof NBTTagList list) {
+			out.write('[');
+			for (int i = 0; i < list.tagCount(); i++) {
+				if (i != 0) {
+					out.write(',');
+				}
+				write(list.get(i), out);
+			}
+			out.write(']');
+		} else if (nbt instanceof NBTTagString string) {
+			writeQuoted(string.getString(), out);
+		} else if (nbt instanceof NBTTagByteArray array) {
+			out.write("[B;");
+			byte[] data = array.getByteArray();
+			for (int i = 0; i < data.length; i++) {
+				if (i != 0) {
+					out.write(',');
+				}
+				out.write(Integer.toString(data[i]));
+				out.write('B');
+			}
+			out.write(']');
+		} else if (nbt instanceof NBTTagIntArray array) {
+			out.write("[I;");
+			int[] data = array.getIntArray();
+			for (int i = 0; i < data.length; i++) {
+				if (i != 0) {
+					out.write(',');
+				}
+				out.write(Integer.toString(data[i]));
+			}
+			out.write(']');
+		} else if (nbt instanceof NBTTagLongArray array) {
+			out.write("[L;");
+			long[] data = IModNBTTagLongArray.getLongArray(array);
+			for (int i = 0; i < data.length; i++) {
+				if (i != 0) {
+					out.write(',');
+				}
+				out.write(Long.toString(data[i]));
+				out.write('L');
+			}
+			out.write(']');
+		} else {
+			// 数字标签本身很短，其他模组的自定义标签也只能使用它们自己的格式
+			out.write(nbt.toString());
+		}
+	}
+	
+	/**
+	 * 与{@link NBTTagString#quoteAndEscape(String)}相同
+	 */
+	private static void writeQuoted(String value, Writer out) throws IOException {
+		out.write('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '\\' || c == '"') {
+				out.write('\\');
+			}
+			out.write(c);
+		}
+		out.write('"');
+	}
+}
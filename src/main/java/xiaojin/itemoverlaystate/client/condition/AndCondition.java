@@ -0,0 +1,75 @@
+package xiaojin.itemoverlaystate.client.condition;
+
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.item.ItemStack;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+import javax.annotation.Nullable;
+
+/**
+ * 多个ios:谓词的组合条件，全部满足时才满足
+ *
+ * <p>条件已按开销从小到大排序，遇到不满足的条件立即结束</p>
+ */
+@SideOnly(Side.CLIENT)
+public final class AndCondition implements IosCondition {
+	private final IosCondition[] conditions;
+	private final boolean        dependsOnWorld;
+	private final boolean        dependsOnTime;
+	private final boolean        requiresClientThread;
+	
+	AndCondition(IosCondition[] conditions) {
+		this.conditions = conditions;
+		boolean dependsOnWorld = false;
+		boolean dependsOnTime = false;
+		boolean requiresClientThread = false;
+		for (IosCondition condition : conditions) {
+			dependsOnWorld |= condition.dependsOnWorld();
+			dependsOnTime |= condition.dependsOnTime();
+			requiresClientThread |= condition.requiresClientThread();
+		}
+		this.dependsOnWorld = dependsOnWorld;
+		this.dependsOnTime = dependsOnTime;
+		this.requiresClientThread = requiresClientThread;
+	}
+	
+	@Override
+	public boolean test(ItemStack stack, @Nullable World world, @Nullable EntityLivingBase livingEntity) {
+		for (IosCondition condition : conditions) {
+			if (!condition.test(stack, world, livingEntity)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	IosCondition[] getConditions() {
+		return conditions;
+	}
+	
+	@Override
+	public boolean dependsOnWorld() {
+		return dependsOnWorld;
+	}
+	
+	@Override
+	public long stableTicks() {
+		long ticks = Long.MAX_VALUE;
+		for (IosCondition condition : conditions) {
+			ticks = Math.min(ticks, condition.stableTicks());
+		}
+		return ticks;
+	}
+	
+	@Override
+	public boolean dependsOnTime() {
+		return dependsOnTime;
+	}
+	
+	@Override
+	public boolean requiresClientThread() {
+		return requiresClientThread;
+	}
+}
@@ -0,0 +1,40 @@
+package xiaojin.itemoverlaystate.client.condition;
+
+import com.google.gson.JsonElement;
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+import javax.annotation.Nullable;
+
+/**
+ * ios:damage，根据物品损坏值判断
+ */
+@SideOnly(Side.CLIENT)
+public final class DamageCondition extends ThresholdCondition {
+	private DamageCondition(@Nullable Bound lower, @Nullable Bound upper) {
+		super(lower, upper);
+	}
+	
+	public static IosCondition compile(JsonElement json) {
+		return compile(json, DamageCondition::new);
+	}
+	
+	@Override
+	public int getValue(ItemStack stack) {
+		return stack.getItemDamage();
+	}
+	
+	@Override
+	public int getMaxValue(ItemStack stack) {
+		return stack.getMaxDamage();
+	}
+	
+	/**
+	 * 损坏值和最大耐久由{@link net.minecraft.item.Item#getDamage}和{@link net.minecraft.item.Item#getMaxDamage(ItemStack)}决定，可能是其他模组的代码
+	 */
+	@Override
+	public boolean requiresClientThread() {
+		return true;
+	}
+}
@@ -0,0 +1,64 @@
+package xiaojin.itemoverlaystate.client.condition;
+
+import com.google.gson.JsonElement;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.item.ItemStack;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import xiaojin.itemoverlaystate.client.IosWorldClock;
+
+import javax.annotation.Nullable;
+
+/**
+ * ios:day，根据世界天数判断
+ */
+@SideOnly(Side.CLIENT)
+public final class DayCondition implements IosCondition {
+	private final long day;
+	private final long startTime; // 该天开始时的世界总时间
+	
+	private DayCondition(long day) {
+		this.day = day;
+		this.startTime = (day - 1) * 24000;
+	}
+	
+	public static IosCondition compile(JsonElement json) {
+		if (!json.isJsonPrimitive() || !json.getAsJsonPrimitive().isNumber()) {
+			return IosConditions.FALSE;
+		}
+		return new DayCondition(json.getAsLong());
+	}
+	
+	@Override
+	public boolean test(ItemStack stack, @Nullable World world, @Nullable EntityLivingBase livingEntity) {
+		if (!IosWorldClock.isPresent()) {
+			return false;
+		}
+		return (IosWorldClock.getTotalTime() / 24000) + 1 >= day;
+	}
+	
+	/**
+	 * @return 目标天数，从1开始
+	 */
+	public long getDay() {
+		return day;
+	}
+	
+	/**
+	 * 总时间每tick最多前进1，满足后只有时间跳变才会改变结果
+	 */
+	@Override
+	public long stableTicks() {
+		if (!IosWorldClock.isPresent()) {
+			return 0;
+		}
+		long remaining = startTime - IosWorldClock.getTotalTime();
+		return remaining > 0 ? remaining : Long.MAX_VALUE;
+	}
+	
+	@Override
+	public boolean dependsOnTime() {
+		return true;
+	}
+}
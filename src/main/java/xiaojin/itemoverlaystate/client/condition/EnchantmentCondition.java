@@ -0,0 +1,182 @@
+package xiaojin.itemoverlaystate.client.condition;
+
+import com.google.gson.JsonElement;
+import net.minecraft.enchantment.Enchantment;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.world.World;
+import net.minecraftforge.common.util.Constants;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ios:enchantment 和 ios:includeEnchantment，根据物品的附魔判断
+ *
+ * <p>物品需要包含全部附魔，且等级不低于要求的等级。附魔名在模型加载时解析为注册表中的数字ID，
+ * 注册表ID重新映射（例如进入服务器）后在下一次判断时重新解析，匹配时只遍历一次物品的附魔列表</p>
+ */
+@SideOnly(Side.CLIENT)
+public final class EnchantmentCondition implements IosCondition {
+	private static volatile int generation; // 注册表ID映射的版本，重新映射后增加
+	
+	private final ResourceLocation[] names;  // 附魔名
+	private final short[]            levels; // 最低等级
+	private volatile Resolved        resolved;
+	
+	private EnchantmentCondition(ResourceLocation[] names, short[] levels) {
+		this.names = names;
+		this.levels = levels;
+		this.resolved = resolve();
+	}
+	
+	/**
+	 * 注册表ID重新映射后调用，使已解析的附魔ID失效
+	 */
+	public static void onIdMapping() {
+		generation++;
+	}
+	
+	/**
+	 * 编译ios:enchantment，格式为{"附魔名": 最低等级}
+	 */
+	public static IosCondition compile(JsonElement json) {
+		if (!json.isJsonObject()) {
+			return IosConditions.FALSE;
+		}
+		List<ResourceLocation> names = new ArrayList<>();
+		List<Short> levels = new ArrayList<>();
+		for (Map.Entry<String, JsonElement> entry : json.getAsJsonObject().entrySet()) {
+			names.add(new ResourceLocation(entry.getKey()));
+			levels.add(entry.getValue().getAsShort());
+		}
+		return create(names, levels);
+	}
+	
+	/**
+	 * 编译ios:includeEnchantment，格式为附魔名或附魔名数组
+	 */
+	public static IosCondition compileInclude(JsonElement json) {
+		List<ResourceLocation> names = new ArrayList<>();
+		if (json.isJsonPrimitive() && json.getAsJsonPrimitive().isString()) {
+			names.add(new ResourceLocation(json.getAsString()));
+		} else if (json.isJsonArray()) {
+			for (JsonElement element : json.getAsJsonArray()) {
+				if (element.isJsonPrimitive() && element.getAsJsonPrimitive().isString()) {
+					names.add(new ResourceLocation(element.getAsString()));
+				}
+			}
+		} else {
+			return IosConditions.FALSE;
+		}
+		List<Short> levels = new ArrayList<>();
+		for (int i = 0; i < names.size(); i++) {
+			levels.add(Short.MIN_VALUE);
+		}
+		return create(names, levels);
+	}
+	
+	private static IosCondition create(List<ResourceLocation> names, List<Short> levels) {
+		short[] levelArray = new short[levels.size()];
+		for (int i = 0; i < levelArray.length; i++) {
+			levelArray[i] = levels.get(i);
+		}
+		return new EnchantmentCondition(names.toArray(new ResourceLocation[0]), levelArray);
+	}
+	
+	/**
+	 * 把附魔名解析为当前注册表中的数字ID
+	 */
+	private Resolved resolve() {
+		int currentGeneration = generation;
+		int[] ids = new int[names.length];
+		boolean registered = true;
+		for (int i = 0; i < names.length; i++) {
+			Enchantment enchantment = Enchantment.REGISTRY.getObject(names[i]);
+			if (enchantment == null) {
+				registered = false;
+				continue;
+			}
+			ids[i] = Enchantment.getEnchantmentID(enchantment);
+		}
+		return new Resolved(currentGeneration, ids, registered);
+	}
+	
+	@Override
+	public boolean test(ItemStack stack, @Nullable World world, @Nullable EntityLivingBase livingEntity) {
+		Resolved resolved = this.resolved;
+		if (resolved.generation != generation) {
+			resolved = this.resolved = resolve();
+		}
+		// 有未注册的附魔时不可能满足
+		if (!resolved.registered) {
+			return false;
+		}
+		int[] ids = resolved.ids;
+		if (ids.length == 0) {
+			return true;
+		}
+		NBTTagCompound tag = stack.getTagCompound();
+		if (tag == null || !tag.hasKey("ench", Constants.NBT.TAG_LIST)) {
+			return false;
+		}
+		NBTTagList enchantments = tag.getTagList("ench", Constants.NBT.TAG_COMPOUND);
+		if (ids.length > 64) {
+			for (int i = 0; i < ids.length; i++) {
+				if (!contains(enchantments, ids[i], levels[i])) {
+					return false;
+				}
+			}
+			return true;
+		}
+		// 遍历一次附魔列表，标记满足的附魔，全部满足后提前结束
+		long full = ids.length == 64 ? -1L : (1L << ids.length) - 1;
+		long mask = 0;
+		for (int i = 0; i < enchantments.tagCount(); i++) {
+			NBTTagCompound enchantment = enchantments.getCompoundTagAt(i);
+			short id = enchantment.getShort("id");
+			short level = enchantment.getShort("lvl");
+			for (int j = 0; j < ids.length; j++) {
+				if (ids[j] == id && level >= levels[j]) {
+					mask |= 1L << j;
+				}
+			}
+			if (mask == full) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private static boolean contains(NBTTagList enchantments, int id, short minLevel) {
+		for (int i = 0; i < enchantments.tagCount(); i++) {
+			NBTTagCompound enchantment = enchantments.getCompoundTagAt(i);
+			if (enchantment.getShort("id") == id && enchantment.getShort("lvl") >= minLevel) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * 解析后的附魔ID
+	 */
+	private static final class Resolved {
+		private final int     generation;
+		private final int[]   ids;
+		private final boolean registered; // 是否全部附魔都已注册
+		
+		private Resolved(int generation, int[] ids, boolean registered) {
+			this.generation = generation;
+			this.ids = ids;
+			this.registered = registered;
+		}
+	}
+}
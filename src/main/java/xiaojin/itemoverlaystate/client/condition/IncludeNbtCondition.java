@@ -0,0 +1,73 @@
+package xiaojin.itemoverlaystate.client.condition;
+
+import com.google.gson.JsonElement;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import xiaojin.itemoverlaystate.client.condition.nbt.ItemStackNbtView;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ios:includeNbt，判断物品是否包含这些NBT键（要全部包含）
+ *
+ * <p>键可以位于物品NBT的根或其tag中</p>
+ */
+@SideOnly(Side.CLIENT)
+public final class IncludeNbtCondition implements IosCondition {
+	private final String[] keys;
+	private final int[]    rootKeys; // 键在物品NBT根中对应的字段
+	
+	private IncludeNbtCondition(String[] keys) {
+		this.keys = keys;
+		this.rootKeys = new int[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			rootKeys[i] = ItemStackNbtView.keyOf(keys[i]);
+		}
+	}
+	
+	public static IosCondition compile(JsonElement json) {
+		List<String> keys = new ArrayList<>();
+		if (json.isJsonPrimitive() && json.getAsJsonPrimitive().isString()) {
+			keys.add(json.getAsString());
+		} else if (json.isJsonArray()) {
+			for (JsonElement element : json.getAsJsonArray()) {
+				if (element.isJsonPrimitive() && element.getAsJsonPrimitive().isString()) {
+					keys.add(element.getAsString());
+				}
+			}
+		} else {
+			return IosConditions.FALSE;
+		}
+		return new IncludeNbtCondition(keys.toArray(new String[0]));
+	}
+	
+	@Override
+	public boolean test(ItemStack stack, @Nullable World world, @Nullable EntityLivingBase livingEntity) {
+		NBTTagCompound tag = stack.getTagCompound();
+		for (int i = 0; i < keys.length; i++) {
+			if ((tag == null || !tag.hasKey(keys[i])) && !ItemStackNbtView.hasKey(stack, rootKeys[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * ForgeCaps需要序列化物品的能力才能判断是否存在
+	 */
+	@Override
+	public boolean requiresClientThread() {
+		for (int key : rootKeys) {
+			if (key == ItemStackNbtView.FORGE_CAPS) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
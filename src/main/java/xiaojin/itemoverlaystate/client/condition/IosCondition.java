@@ -0,0 +1,65 @@
+package xiaojin.itemoverlaystate.client.condition;
+
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.item.ItemStack;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+import javax.annotation.Nullable;
+
+/**
+ * 编译后的ios:谓词条件
+ *
+ * <p>由{@link IosConditions#compile}在模型加载时从JSON编译得到，实例不可变，渲染时直接调用{@link #test}判断</p>
+ */
+@SideOnly(Side.CLIENT)
+public interface IosCondition {
+	/**
+	 * 判断物品是否满足条件
+	 *
+	 * @param stack        物品
+	 * @param world        世界，可能为null
+	 * @param livingEntity 持有物品的实体，可能为null
+	 * @return 如果条件不满足返回false，满足返回true
+	 */
+	boolean test(ItemStack stack, @Nullable World world, @Nullable EntityLivingBase livingEntity);
+	
+	/**
+	 * 判断结果是否还取决于物品以外、无法预测变化的状态，这样的条件不能按物品缓存
+	 *
+	 * @return 如果取决于物品以外的状态返回true，否则返回false
+	 */
+	default boolean dependsOnWorld() {
+		return false;
+	}
+	
+	/**
+	 * 按{@link xiaojin.itemoverlaystate.client.IosWorldClock}的当前快照，结果至少还能保持多少个客户端tick不变
+	 *
+	 * <p>只取决于物品的条件返回{@link Long#MAX_VALUE}，为0时每次都需要重新判断</p>
+	 *
+	 * @return 保持不变的tick数
+	 */
+	default long stableTicks() {
+		return Long.MAX_VALUE;
+	}
+	
+	/**
+	 * 判断结果是否取决于世界时间，这样的结果在时间跳变（{@link xiaojin.itemoverlaystate.client.IosWorldClock#getEpoch()}变化）后需要重新判断
+	 *
+	 * @return 如果取决于世界时间返回true，否则返回false
+	 */
+	default boolean dependsOnTime() {
+		return false;
+	}
+	
+	/**
+	 * 判断时是否会调用可能被其他模组重写的方法（物品名称、损坏值、最大堆叠数、能力序列化），这样的条件只能在客户端线程判断
+	 *
+	 * @return 如果只能在客户端线程判断返回true，否则返回false
+	 */
+	default boolean requiresClientThread() {
+		return false;
+	}
+}
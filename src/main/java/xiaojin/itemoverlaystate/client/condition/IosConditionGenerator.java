@@ -0,0 +1,253 @@
+package xiaojin.itemoverlaystate.client.condition;
+
+import com.google.common.collect.MapMaker;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.resources.IReloadableResourceManager;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.item.ItemStack;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import xiaojin.itemoverlaystate.ItemOverlayState;
+import xiaojin.itemoverlaystate.client.IosWorldClock;
+
+import javax.annotation.Nullable;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 为单个覆盖的条件生成专用的判断类
+ *
+ * <p>生成的类把组合条件展开为一段顺序执行的字节码：数字阈值和范围、ios:day、ios:time的常量直接写入比较指令，
+ * 其他条件保存在类型精确的字段中，通过invokevirtual调用final类的方法，JIT可以直接内联，判断时没有接口分派和数组遍历。
+ * 只调用本模组的方法，不依赖Minecraft方法的运行时名称。类文件版本为Java 5，不需要计算栈映射帧。
+ * 每次资源加载使用新的类加载器，旧模型释放后上一次生成的类随旧的类加载器一起卸载</p>
+ */
+@SideOnly(Side.CLIENT)
+public final class IosConditionGenerator {
+	private static final String        CONDITION   = Type.getInternalName(IosCondition.class);
+	private static final String        TEST        = "test";
+	private static final String        TEST_DESC   = Type.getMethodDescriptor(Type.BOOLEAN_TYPE, Type.getType(ItemStack.class), Type.getType(World.class), Type.getType(EntityLivingBase.class));
+	private static final String        PACKAGE     = "xiaojin/itemoverlaystate/client/condition/generated/";
+	private static final AtomicInteger COUNTER     = new AtomicInteger(); // 生成的类的序号
+	private static volatile Loader     loader      = new Loader(); // 本次资源加载生成的类
+	private static volatile boolean    unavailable; // 生成失败过一次后不再尝试
+	
+	private IosConditionGenerator() {
+	}
+	
+	/**
+	 * 注册资源重载监听，模型重新加载后换用新的类加载器
+	 */
+	public static void init() {
+		((IReloadableResourceManager) Minecraft.getMinecraft().getResourceManager()).registerReloadListener(resourceManager -> loader = new Loader());
+	}
+	
+	/**
+	 * 生成判断类并创建实例，同一次资源加载中同一个条件只生成一次
+	 *
+	 * @param condition 编译后的条件
+	 * @return 结果与原条件相同的新条件，无法生成时返回null
+	 */
+	@Nullable
+	public static IosCondition generate(IosCondition condition) {
+		if (unavailable) {
+			return null;
+		}
+		Loader loader = IosConditionGenerator.loader;
+		IosCondition generated = loader.generated.get(condition);
+		if (generated == null) {
+			generated = generate(loader, condition);
+			if (generated != null) {
+				IosCondition previous = loader.generated.putIfAbsent(condition, generated);
+				if (previous != null) {
+					generated = previous;
+				}
+			}
+		}
+		return generated;
+	}
+	
+	@Nullable
+	private static IosCondition generate(Loader loader, IosCondition condition) {
+		List<IosCondition> parts = new ArrayList<>();
+		if (condition instanceof AndCondition and) {
+			Collections.addAll(parts, and.getConditions());
+		} else {
+			parts.add(condition);
+		}
+		String name = PACKAGE + "GeneratedCondition$" + COUNTER.incrementAndGet();
+		try {
+			byte[] bytes = generate(name, parts);
+			Class<?> generated = loader.define(name.replace('/', '.'), bytes);
+			return (IosCondition) generated.getConstructor(IosCondition[].class).newInstance((Object) parts.toArray(new IosCondition[0]));
+		} catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+			unavailable = true;
+			ItemOverlayState.LOGGER.warn("Bytecode condition generation is unavailable, falling back to the normal evaluator", e);
+			return null;
+		}
+	}
+	
+	private static byte[] generate(String name, List<IosCondition> parts) {
+		ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		writer.visit(Opcodes.V1_5, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, name, null, "java/lang/Object", new String[]{CONDITION});
+		String[] fields = new String[parts.size()];
+		for (int i = 0; i < parts.size(); i++) {
+			fields[i] = Type.getDescriptor(fieldType(parts.get(i)));
+			writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "c" + i, fields[i], null, null).visitEnd();
+		}
+		
+		// 构造方法：按顺序把条件保存到字段
+		MethodVisitor init = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "([L" + CONDITION + ";)V", null, null);
+		init.visitCode();
+		init.visitVarInsn(Opcodes.ALOAD, 0);
+		init.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+		for (int i = 0; i < parts.size(); i++) {
+			init.visitVarInsn(Opcodes.ALOAD, 0);
+			init.visitVarInsn(Opcodes.ALOAD, 1);
+			init.visitLdcInsn(i);
+			init.visitInsn(Opcodes.AALOAD);
+			init.visitTypeInsn(Opcodes.CHECKCAST, Type.getType(fields[i]).getInternalName());
+			init.visitFieldInsn(Opcodes.PUTFIELD, name, "c" + i, fields[i]);
+		}
+		init.visitInsn(Opcodes.RETURN);
+		init.visitMaxs(0, 0);
+		init.visitEnd();
+		
+		// test：依次判断，任意一个不满足时跳到fail
+		MethodVisitor test = writer.visitMethod(Opcodes.ACC_PUBLIC, TEST, TEST_DESC, null, null);
+		test.visitCode();
+		Label fail = new Label();
+		for (int i = 0; i < parts.size(); i++) {
+			emit(test, name, "c" + i, fields[i], parts.get(i), fail);
+		}
+		test.visitInsn(Opcodes.ICONST_1);
+		test.visitInsn(Opcodes.IRETURN);
+		test.visitLabel(fail);
+		test.visitInsn(Opcodes.ICONST_0);
+		test.visitInsn(Opcodes.IRETURN);
+		test.visitMaxs(0, 0);
+		test.visitEnd();
+		
+		writer.visitEnd();
+		return writer.toByteArray();
+	}
+	
+	/**
+	 * 生成单个条件的判断，不满足时跳到fail
+	 */
+	private static void emit(MethodVisitor mv, String owner, String field, String desc, IosCondition part, Label fail) {
+		if (part == IosConditions.TRUE) {
+			return;
+		}
+		if (part == IosConditions.FALSE) {
+			mv.visitJumpInsn(Opcodes.GOTO, fail);
+			return;
+		}
+		if (part instanceof ThresholdCondition threshold && !threshold.isPercentage() && isAccessible(part.getClass())) {
+			// value = c.getValue(stack); value >= min && value <= max，不限制的一端不生成比较
+			String type = Type.getInternalName(part.getClass());
+			mv.visitVarInsn(Opcodes.ALOAD, 0);
+			mv.visitFieldInsn(Opcodes.GETFIELD, owner, field, desc);
+			mv.visitVarInsn(Opcodes.ALOAD, 1);
+			mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, type, "getValue", Type.getMethodDescriptor(Type.INT_TYPE, Type.getType(ItemStack.class)), false);
+			boolean hasMin = threshold.getMin() != Integer.MIN_VALUE;
+			boolean hasMax = threshold.getMax() != Integer.MAX_VALUE;
+			if (hasMin && hasMax) {
+				mv.visitVarInsn(Opcodes.ISTORE, 4);
+				mv.visitVarInsn(Opcodes.ILOAD, 4);
+			}
+			if (hasMin) {
+				mv.visitLdcInsn(threshold.getMin());
+				mv.visitJumpInsn(Opcodes.IF_ICMPLT, fail);
+			}
+			if (hasMax) {
+				if (hasMin) {
+					mv.visitVarInsn(Opcodes.ILOAD, 4);
+				}
+				mv.visitLdcInsn(threshold.getMax());
+				mv.visitJumpInsn(Opcodes.IF_ICMPGT, fail);
+			}
+			if (!hasMin && !hasMax) {
+				mv.visitInsn(Opcodes.POP);
+			}
+			return;
+		}
+		if (part instanceof DayCondition day) {
+			// IosWorldClock.isPresent() && IosWorldClock.getTotalTime() / 24000 + 1 >= day
+			emitClock(mv, fail);
+			mv.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(IosWorldClock.class), "getTotalTime", "()J", false);
+			mv.visitLdcInsn(24000L);
+			mv.visitInsn(Opcodes.LDIV);
+			mv.visitInsn(Opcodes.LCONST_1);
+			mv.visitInsn(Opcodes.LADD);
+			mv.visitLdcInsn(day.getDay());
+			mv.visitInsn(Opcodes.LCMP);
+			mv.visitJumpInsn(Opcodes.IFLT, fail);
+			return;
+		}
+		if (part instanceof TimeCondition time) {
+			// IosWorldClock.isPresent() && IosWorldClock.getWorldTime() >= time
+			emitClock(mv, fail);
+			mv.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(IosWorldClock.class), "getWorldTime", "()J", false);
+			mv.visitLdcInsn(time.getTime());
+			mv.visitInsn(Opcodes.LCMP);
+			mv.visitJumpInsn(Opcodes.IFLT, fail);
+			return;
+		}
+		// 其他条件调用字段类型上的test，final类时是单态调用
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		mv.visitFieldInsn(Opcodes.GETFIELD, owner, field, desc);
+		mv.visitVarInsn(Opcodes.ALOAD, 1);
+		mv.visitVarInsn(Opcodes.ALOAD, 2);
+		mv.visitVarInsn(Opcodes.ALOAD, 3);
+		Type type = Type.getType(desc);
+		if (type.getInternalName().equals(CONDITION)) {
+			mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, CONDITION, TEST, TEST_DESC, true);
+		} else {
+			mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, type.getInternalName(), TEST, TEST_DESC, false);
+		}
+		mv.visitJumpInsn(Opcodes.IFEQ, fail);
+	}
+	
+	private static void emitClock(MethodVisitor mv, Label fail) {
+		mv.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(IosWorldClock.class), "isPresent", "()Z", false);
+		mv.visitJumpInsn(Opcodes.IFEQ, fail);
+	}
+	
+	/**
+	 * @return 字段的类型，生成的类位于另一个类加载器中，只能使用公开的类
+	 */
+	private static Class<?> fieldType(IosCondition part) {
+		Class<?> type = part.getClass();
+		return isAccessible(type) ? type : IosCondition.class;
+	}
+	
+	private static boolean isAccessible(Class<?> type) {
+		return Modifier.isPublic(type.getModifiers()) && Modifier.isFinal(type.getModifiers()) && type.getEnclosingClass() == null;
+	}
+	
+	/**
+	 * 一次资源加载中生成的类，父加载器是本模组的类加载器
+	 */
+	private static final class Loader extends ClassLoader {
+		private final ConcurrentMap<IosCondition, IosCondition> generated = new MapMaker().weakKeys().makeMap(); // 原条件 -> 生成的条件，键按引用比较
+		
+		private Loader() {
+			super(IosConditionGenerator.class.getClassLoader());
+		}
+		
+		private Class<?> define(String name, byte[] bytes) {
+			return defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package xiaojin.itemoverlaystate.client.condition;
+
+import com.google.gson.JsonElement;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+import javax.annotation.Nullable;
+import java.util.function.Function;
+
+/**
+ * ios:谓词的条件类型
+ *
+ * <p>键名不区分大小写，因为{@link net.minecraft.util.ResourceLocation}会把路径转为小写</p>
+ */
+@SideOnly(Side.CLIENT)
+public enum IosConditionType {
+	STACKING("stacking", 1, StackingCondition::compile),
+	DAMAGE("damage", 1, DamageCondition::compile),
+	NBT("nbt", 6, NbtCondition::compile),
+	INCLUDE_NBT("includeNbt", 3, IncludeNbtCondition::compile),
+	NBT_PATH("nbtPath", 3, NbtPathCondition::compile),
+	ENCHANTMENT("enchantment", 4, EnchantmentCondition::compile),
+	INCLUDE_ENCHANTMENT("includeEnchantment", 4, EnchantmentCondition::compileInclude),
+	NAME("name", 5, NameCondition::compile),
+	DAY("day", 2, DayCondition::compile),
+	TIME("time", 2, TimeCondition::compile);
+	
+	private final String                              key;
+	private final int                                 cost; // 估计的判断开销，越小越先判断
+	private final Function<JsonElement, IosCondition> compiler;
+	
+	IosConditionType(String key, int cost, Function<JsonElement, IosCondition> compiler) {
+		this.key = key;
+		this.cost = cost;
+		this.compiler = compiler;
+	}
+	
+	/**
+	 * 根据谓词路径获取条件类型
+	 *
+	 * @param path 谓词键的路径部分
+	 * @return 条件类型，不存在时返回null
+	 */
+	@Nullable
+	public static IosConditionType byKey(String path) {
+		for (IosConditionType type : values()) {
+			if (type.key.equalsIgnoreCase(path)) {
+				return type;
+			}
+		}
+		return null;
+	}
+	
+	public String getKey() {
+		return key;
+	}
+	
+	/**
+	 * 估计的判断开销，整数比较最小，附魔遍历、名称匹配和NBT比较依次增大
+	 *
+	 * @return 开销等级
+	 */
+	public int getCost() {
+		return cost;
+	}
+	
+	/**
+	 * 编译该类型的条件
+	 *
+	 * @param json 谓词的值
+	 * @return 编译后的条件
+	 */
+	public IosCondition compile(JsonElement json) {
+		return compiler.apply(json);
+	}
+}
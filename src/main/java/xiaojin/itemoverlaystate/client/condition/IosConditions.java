@@ -0,0 +1,138 @@
+package xiaojin.itemoverlaystate.client.condition;
+
+import com.google.gson.JsonElement;
+import net.minecraft.item.IItemPropertyGetter;
+import net.minecraft.item.Item;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import xiaojin.itemoverlaystate.IosConfig;
+import xiaojin.itemoverlaystate.ItemOverlayState;
+import xiaojin.itemoverlaystate.client.IosMetrics;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ios:谓词编译器
+ *
+ * <p>在模型加载时把{@code predicate}中的ios:谓词编译成{@link IosCondition}，渲染时不再解析JSON</p>
+ */
+@SideOnly(Side.CLIENT)
+public final class IosConditions {
+	/**
+	 * 恒为真的条件
+	 */
+	public static final IosCondition TRUE  = (stack, world, livingEntity) -> true;
+	/**
+	 * 恒为假的条件
+	 */
+	public static final IosCondition FALSE = (stack, world, livingEntity) -> false;
+	
+	private IosConditions() {
+	}
+	
+	/**
+	 * 编译ios:谓词
+	 *
+	 * <p>全部有效的ios:谓词都需要满足，按{@link IosConditionType#getCost()}从小到大排序，判断时遇到不满足的谓词立即结束。
+	 * 未知的谓词忽略，只有未知谓词时视为满足，没有谓词时视为不满足</p>
+	 *
+	 * @param values ios:谓词映射
+	 * @return 编译后的条件
+	 */
+	public static IosCondition compile(Map<ResourceLocation, JsonElement> values) {
+		List<IosConditionType> types = new ArrayList<>();
+		List<IosCondition> conditions = new ArrayList<>();
+		boolean unknown = false;
+		for (Map.Entry<ResourceLocation, JsonElement> entry : values.entrySet()) {
+			JsonElement json = entry.getValue();
+			if (json == null || json.isJsonNull()) {
+				continue;
+			}
+			IosConditionType type = IosConditionType.byKey(entry.getKey().getPath());
+			if (type == null) {
+				unknown = true;
+				continue;
+			}
+			IosCondition condition = compile(entry.getKey(), type, json);
+			if (condition == FALSE) {
+				return FALSE;
+			}
+			// 按开销插入，开销相同时保持原来的顺序
+			int index = types.size();
+			while (index > 0 && types.get(index - 1).getCost() > type.getCost()) {
+				index--;
+			}
+			types.add(index, type);
+			conditions.add(index, condition);
+		}
+		if (conditions.isEmpty()) {
+			return unknown ? TRUE : FALSE;
+		}
+		if (conditions.size() == 1) {
+			return conditions.get(0);
+		}
+		return new AndCondition(conditions.toArray(new IosCondition[0]));
+	}
+	
+	/**
+	 * 把覆盖的原版属性谓词和编译好的ios:条件合并为一个条件
+	 *
+	 * <p>原版属性的获取器按物品解析一次，属性谓词只是一次浮点比较，排在ios:条件之前，判断时遇到不满足的条件立即结束。
+	 * 与原版相同，物品没有某个属性时不满足。开启{@link IosConfig#bytecodeThreshold}时外面包装一层{@link PromotingCondition}</p>
+	 *
+	 * @param item      物品
+	 * @param values    原版谓词映射，ios:谓词的占位值会被跳过
+	 * @param condition 编译后的ios:条件，没有ios:谓词时为null
+	 * @return 合并后的条件
+	 */
+	public static IosCondition fuse(Item item, Map<ResourceLocation, Float> values, @Nullable IosCondition condition) {
+		if (condition == FALSE) {
+			return FALSE;
+		}
+		List<IosCondition> conditions = new ArrayList<>();
+		for (Map.Entry<ResourceLocation, Float> entry : values.entrySet()) {
+			ResourceLocation key = entry.getKey();
+			if ("ios".equals(key.getNamespace())) {
+				continue;
+			}
+			IItemPropertyGetter getter = item.getPropertyGetter(key);
+			if (getter == null) {
+				return FALSE;
+			}
+			conditions.add(new PropertyCondition(getter, entry.getValue()));
+		}
+		if (condition instanceof AndCondition and) {
+			Collections.addAll(conditions, and.getConditions());
+		} else if (condition != null && condition != TRUE) {
+			conditions.add(condition);
+		}
+		if (conditions.isEmpty()) {
+			return TRUE;
+		}
+		IosCondition fused = conditions.size() == 1 ? conditions.get(0) : new AndCondition(conditions.toArray(new IosCondition[0]));
+		return IosConfig.bytecodeThreshold > 0 ? new PromotingCondition(fused) : fused;
+	}
+	
+	/**
+	 * 编译单个ios:谓词，JSON格式错误时记录警告并返回恒为假的条件
+	 *
+	 * @param key  谓词键
+	 * @param type 条件类型
+	 * @param json 谓词的值
+	 * @return 编译后的条件
+	 */
+	private static IosCondition compile(ResourceLocation key, IosConditionType type, JsonElement json) {
+		try {
+			IosCondition condition = type.compile(json);
+			return IosMetrics.ENABLED && condition != FALSE ? new TimedCondition(type, condition) : condition;
+		} catch (RuntimeException e) {
+			ItemOverlayState.LOGGER.warn("Invalid predicate {}: {}", key, json, e);
+			return FALSE;
+		}
+	}
+}
@@ -0,0 +1,309 @@
+package xiaojin.itemoverlaystate.client.condition;
+
+import com.google.gson.JsonElement;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.item.ItemStack;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import xiaojin.itemoverlaystate.IosConfig;
+import xiaojin.itemoverlaystate.ItemOverlayState;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * ios:name，根据物品名称（正则表达式）判断
+ *
+ * <p>只由普通字符和{@code .*}组成的表达式在编译时识别为全等、前缀、后缀、包含或通配匹配，直接用字符串方法判断；
+ * 其余表达式使用正则，并按{@link IosConfig#regexStepLimit}限制每次匹配的读取次数。
+ * 识别为字符串匹配的表达式只在名称含有换行符时才需要正则，这时才编译</p>
+ */
+@SideOnly(Side.CLIENT)
+public final class NameCondition implements IosCondition {
+	private static final int LITERAL  = 0; // 全等
+	private static final int PREFIX   = 1; // 前缀
+	private static final int SUFFIX   = 2; // 后缀
+	private static final int CONTAINS = 3; // 包含
+	private static final int GLOB     = 4; // 多段通配
+	private static final int REGEX    = 5; // 正则
+	
+	private static final AtomicBoolean                    LIMIT_REPORTED = new AtomicBoolean(); // 是否已经报告过超出读取次数，只报告一次
+	private static final ThreadLocal<BoundedCharSequence> BOUNDED        = ThreadLocal.withInitial(BoundedCharSequence::new); // 每个线程复用的字符序列
+	
+	private final    String   regex;
+	private volatile Pattern  pattern;         // 字符串匹配的表达式在第一次需要时编译
+	private final    int      kind;
+	private final    String[] segments;        // 被.*分隔的普通字符串
+	private final    boolean  leadingWildcard; // 是否以.*开头
+	private final    boolean  trailingWildcard; // 是否以.*结尾
+	
+	private NameCondition(String regex, @Nullable Pattern pattern, int kind, String[] segments, boolean leadingWildcard, boolean trailingWildcard) {
+		this.regex = regex;
+		this.pattern = pattern;
+		this.kind = kind;
+		this.segments = segments;
+		this.leadingWildcard = leadingWildcard;
+		this.trailingWildcard = trailingWildcard;
+	}
+	
+	public static IosCondition compile(JsonElement json) {
+		if (!json.isJsonPrimitive() || !json.getAsJsonPrimitive().isString()) {
+			return IosConditions.FALSE;
+		}
+		return compile(json.getAsString());
+	}
+	
+	/**
+	 * 编译正则表达式
+	 */
+	static IosCondition compile(String regex) {
+		List<String> segments = new ArrayList<>();
+		boolean[] wildcards = new boolean[2];
+		if (!parseGlob(regex, segments, wildcards)) {
+			return new NameCondition(regex, Pattern.compile(regex), REGEX, new String[0], false, false);
+		}
+		boolean leading = wildcards[0];
+		boolean trailing = wildcards[1];
+		int kind;
+		if (segments.isEmpty()) {
+			// 空表达式或只有.*
+			kind = leading ? PREFIX : LITERAL;
+			segments.add("");
+		} else if (segments.size() == 1) {
+			kind = leading ? (trailing ? CONTAINS : SUFFIX) : (trailing ? PREFIX : LITERAL);
+		} else {
+			kind = GLOB;
+		}
+		return new NameCondition(regex, null, kind, segments.toArray(new String[0]), leading, trailing);
+	}
+	
+	/**
+	 * @return 编译好的正则，字符串匹配的表达式在这里第一次编译
+	 */
+	private Pattern pattern() {
+		Pattern pattern = this.pattern;
+		if (pattern == null) {
+			pattern = Pattern.compile(regex);
+			this.pattern = pattern;
+		}
+		return pattern;
+	}
+	
+	/**
+	 * 把只由普通字符、转义字符和{@code .*}组成的正则表达式拆分为普通字符串
+	 *
+	 * @param regex     正则表达式
+	 * @param segments  拆分出的非空普通字符串
+	 * @param wildcards 是否以.*开头，是否以.*结尾
+	 * @return 如果可以不使用正则判断返回true，否则返回false
+	 */
+	private static boolean parseGlob(String regex, List<String> segments, boolean[] wildcards) {
+		int length = regex.length();
+		int start = 0;
+		// matches()要求完整匹配，开头的^和结尾的$没有作用
+		if (length > 0 && regex.charAt(0) == '^') {
+			start = 1;
+		}
+		StringBuilder literal = new StringBuilder();
+		boolean lastWildcard = false;
+		for (int i = start; i < length; i++) {
+			char c = regex.charAt(i);
+			if (c == '\\') {
+				if (i + 1 >= length) {
+					return false;
+				}
+				char next = regex.charAt(i + 1);
+				if (next == 'Q') {
+					int end = regex.indexOf("\\E", i + 2);
+					if (end < 0 || end + 2 > length) {
+						end = length;
+					}
+					literal.append(regex, i + 2, end);
+					i = Math.min(end + 1, length);
+					lastWildcard = false;
+					continue;
+				}
+				// 转义字母和数字是字符类或反向引用
+				if (Character.isLetterOrDigit(next)) {
+					return false;
+				}
+				literal.append(next);
+				i++;
+				lastWildcard = false;
+			} else if (c == '.' && i + 1 < length && regex.charAt(i + 1) == '*') {
+				int skip = 1;
+				if (i + 2 < length) {
+					char quantifier = regex.charAt(i + 2);
+					if (quantifier == '+') {
+						return false;
+					} else if (quantifier == '?') {
+						skip = 2;
+					}
+				}
+				if (literal.length() > 0) {
+					segments.add(literal.toString());
+					literal.setLength(0);
+				} else if (segments.isEmpty()) {
+					wildcards[0] = true;
+				}
+				i += skip;
+				lastWildcard = true;
+			} else if (c == '$' && i == length - 1) {
+				// 结尾的$，在\Q...\E中的已经作为普通字符读取
+				continue;
+			} else if ("[](){}|^$?*+.".indexOf(c) >= 0) {
+				return false;
+			} else {
+				literal.append(c);
+				lastWildcard = false;
+			}
+		}
+		if (literal.length() > 0) {
+			segments.add(literal.toString());
+		}
+		wildcards[1] = lastWildcard;
+		return true;
+	}
+	
+	@Override
+	public boolean test(ItemStack stack, @Nullable World world, @Nullable EntityLivingBase livingEntity) {
+		String name = stack.getDisplayName();
+		// 正则中的.不匹配换行符，名称含有换行符时只能交给正则判断
+		if (kind != LITERAL && kind != REGEX && hasLineTerminator(name)) {
+			return matchesRegex(name);
+		}
+		switch (kind) {
+			case LITERAL:
+				return name.equals(segments[0]);
+			case PREFIX:
+				return name.startsWith(segments[0]);
+			case SUFFIX:
+				return name.endsWith(segments[0]);
+			case CONTAINS:
+				return name.contains(segments[0]);
+			case GLOB:
+				return matchesGlob(name);
+			default:
+				return matchesRegex(name);
+		}
+	}
+	
+	/**
+	 * 物品名称由{@link net.minecraft.item.Item#getItemStackDisplayName}决定，可能是其他模组的代码
+	 */
+	@Override
+	public boolean requiresClientThread() {
+		return true;
+	}
+	
+	/**
+	 * 多段通配判断，第一段和最后一段没有通配符时分别作为前缀和后缀，中间各段依次向后查找
+	 */
+	private boolean matchesGlob(String name) {
+		int start = 0;
+		int end = name.length();
+		int first = 0;
+		int last = segments.length;
+		if (!leadingWildcard) {
+			if (!name.startsWith(segments[0])) {
+				return false;
+			}
+			start = segments[0].length();
+			first++;
+		}
+		if (!trailingWildcard) {
+			String suffix = segments[segments.length - 1];
+			if (!name.endsWith(suffix)) {
+				return false;
+			}
+			end -= suffix.length();
+			last--;
+		}
+		if (end < start) {
+			return false;
+		}
+		for (int i = first; i < last; i++) {
+			int index = name.indexOf(segments[i], start);
+			if (index < 0 || index + segments[i].length() > end) {
+				return false;
+			}
+			start = index + segments[i].length();
+		}
+		return true;
+	}
+	
+	private static boolean hasLineTerminator(String name) {
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private boolean matchesRegex(String name) {
+		int limit = IosConfig.regexStepLimit;
+		Pattern pattern = pattern();
+		if (limit <= 0) {
+			return pattern.matcher(name).matches();
+		}
+		try {
+			return pattern.matcher(BOUNDED.get().reset(name, limit)).matches();
+		} catch (StepLimitExceededException e) {
+			if (LIMIT_REPORTED.compareAndSet(false, true)) {
+				ItemOverlayState.LOGGER.warn("ios:name pattern {} exceeded {} steps on \"{}\", treating it as not matching (reported once)", regex, limit, name);
+			}
+			return false;
+		}
+	}
+	
+	/**
+	 * 限制读取次数的字符序列，正则回溯时会反复读取字符。只在所属线程中使用，每次匹配前重置
+	 */
+	private static final class BoundedCharSequence implements CharSequence {
+		private String text = "";
+		private int    remaining;
+		
+		private BoundedCharSequence reset(String text, int limit) {
+			this.text = text;
+			this.remaining = limit;
+			return this;
+		}
+		
+		@Override
+		public char charAt(int index) {
+			if (--remaining < 0) {
+				throw StepLimitExceededException.INSTANCE;
+			}
+			return text.charAt(index);
+		}
+		
+		@Override
+		public int length() {
+			return text.length();
+		}
+		
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			return text.subSequence(start, end);
+		}
+		
+		@Override
+		public String toString() {
+			return text;
+		}
+	}
+	
+	private static final class StepLimitExceededException extends RuntimeException {
+		private static final StepLimitExceededException INSTANCE = new StepLimitExceededException();
+		
+		private StepLimitExceededException() {
+			super(null, null, false, false);
+		}
+	}
+}
@@ -0,0 +1,39 @@
+package xiaojin.itemoverlaystate.client.condition;
+
+import com.google.gson.JsonElement;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.item.ItemStack;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import xiaojin.itemoverlaystate.client.condition.nbt.NbtStackMatcher;
+
+import javax.annotation.Nullable;
+
+/**
+ * ios:nbt，根据json的值判断物品的NBT
+ *
+ * <p>JSON的结构与{@link ItemStack#serializeNBT()}的结果对应，但匹配时不序列化物品</p>
+ */
+@SideOnly(Side.CLIENT)
+public final class NbtCondition implements IosCondition {
+	private final NbtStackMatcher matcher;
+	
+	private NbtCondition(NbtStackMatcher matcher) {
+		this.matcher = matcher;
+	}
+	
+	public static IosCondition compile(JsonElement json) {
+		return new NbtCondition(NbtStackMatcher.compile(json));
+	}
+	
+	@Override
+	public boolean test(ItemStack stack, @Nullable World world, @Nullable EntityLivingBase livingEntity) {
+		return matcher.matches(stack);
+	}
+	
+	@Override
+	public boolean requiresClientThread() {
+		return matcher.readsForgeCaps();
+	}
+}
@@ -0,0 +1,60 @@
+package xiaojin.itemoverlaystate.client.condition;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.item.ItemStack;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import xiaojin.itemoverlaystate.client.condition.nbt.NbtPath;
+
+import javax.annotation.Nullable;
+
+/**
+ * ios:nbtPath，按路径比较物品NBT中的单个值，格式见{@link NbtPath}
+ *
+ * <p>值为数组时需要满足全部比较。只检查一个深层的值时不需要像ios:nbt那样写出完整的嵌套结构，判断只沿路径查找</p>
+ */
+@SideOnly(Side.CLIENT)
+public final class NbtPathCondition implements IosCondition {
+	private final NbtPath[] paths;
+	
+	private NbtPathCondition(NbtPath[] paths) {
+		this.paths = paths;
+	}
+	
+	public static IosCondition compile(JsonElement json) {
+		if (json.isJsonObject()) {
+			return new NbtPathCondition(new NbtPath[]{NbtPath.compile(json)});
+		} else if (json.isJsonArray()) {
+			JsonArray array = json.getAsJsonArray();
+			NbtPath[] paths = new NbtPath[array.size()];
+			for (int i = 0; i < paths.length; i++) {
+				paths[i] = NbtPath.compile(array.get(i));
+			}
+			return new NbtPathCondition(paths);
+		}
+		return IosConditions.FALSE;
+	}
+	
+	@Override
+	public boolean test(ItemStack stack, @Nullable World world, @Nullable EntityLivingBase livingEntity) {
+		for (NbtPath path : paths) {
+			if (!path.matches(stack)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	@Override
+	public boolean requiresClientThread() {
+		for (NbtPath path : paths) {
+			if (path.readsForgeCaps()) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,65 @@
+package xiaojin.itemoverlaystate.client.condition;
+
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.item.ItemStack;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import xiaojin.itemoverlaystate.IosConfig;
+
+import javax.annotation.Nullable;
+
+/**
+ * 判断次数达到{@link IosConfig#bytecodeThreshold}后换用{@link IosConditionGenerator}生成的判断类
+ *
+ * <p>计数不加锁，多线程时可能晚几次生成，不影响结果</p>
+ */
+@SideOnly(Side.CLIENT)
+public final class PromotingCondition implements IosCondition {
+	private final    IosCondition delegate;
+	private volatile IosCondition promoted; // 生成的判断类，无法生成时为原条件，尚未生成时为null
+	private          int          calls;    // 生成之前的判断次数
+	
+	PromotingCondition(IosCondition delegate) {
+		this.delegate = delegate;
+	}
+	
+	@Override
+	public boolean test(ItemStack stack, @Nullable World world, @Nullable EntityLivingBase livingEntity) {
+		IosCondition condition = promoted;
+		if (condition != null) {
+			return condition.test(stack, world, livingEntity);
+		}
+		if (++calls >= IosConfig.bytecodeThreshold) {
+			promote();
+		}
+		return delegate.test(stack, world, livingEntity);
+	}
+	
+	private synchronized void promote() {
+		if (promoted == null) {
+			IosCondition generated = IosConditionGenerator.generate(delegate);
+			promoted = generated == null ? delegate : generated;
+		}
+	}
+	
+	@Override
+	public boolean dependsOnWorld() {
+		return delegate.dependsOnWorld();
+	}
+	
+	@Override
+	public long stableTicks() {
+		return delegate.stableTicks();
+	}
+	
+	@Override
+	public boolean dependsOnTime() {
+		return delegate.dependsOnTime();
+	}
+	
+	@Override
+	public boolean requiresClientThread() {
+		return delegate.requiresClientThread();
+	}
+}
@@ -0,0 +1,36 @@
+package xiaojin.itemoverlaystate.client.condition;
+
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.item.IItemPropertyGetter;
+import net.minecraft.item.ItemStack;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+import javax.annotation.Nullable;
+
+/**
+ * 原版物品属性谓词，属性值不小于目标值时满足
+ *
+ * <p>属性获取器已按物品解析好，判断时不再查找。获取器可以读取世界和实体，结果不能按物品缓存</p>
+ */
+@SideOnly(Side.CLIENT)
+public final class PropertyCondition implements IosCondition {
+	private final IItemPropertyGetter getter;
+	private final float               value; // 目标值
+	
+	PropertyCondition(IItemPropertyGetter getter, float value) {
+		this.getter = getter;
+		this.value = value;
+	}
+	
+	@Override
+	public boolean test(ItemStack stack, @Nullable World world, @Nullable EntityLivingBase livingEntity) {
+		return getter.apply(stack, world, livingEntity) >= value;
+	}
+	
+	@Override
+	public boolean dependsOnWorld() {
+		return true;
+	}
+}
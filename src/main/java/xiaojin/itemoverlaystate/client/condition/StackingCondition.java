@@ -0,0 +1,40 @@
+package xiaojin.itemoverlaystate.client.condition;
+
+import com.google.gson.JsonElement;
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+import javax.annotation.Nullable;
+
+/**
+ * ios:stacking，根据物品堆叠数量判断
+ */
+@SideOnly(Side.CLIENT)
+public final class StackingCondition extends ThresholdCondition {
+	private StackingCondition(@Nullable Bound lower, @Nullable Bound upper) {
+		super(lower, upper);
+	}
+	
+	public static IosCondition compile(JsonElement json) {
+		return compile(json, StackingCondition::new);
+	}
+	
+	@Override
+	public int getValue(ItemStack stack) {
+		return stack.getCount();
+	}
+	
+	@Override
+	public int getMaxValue(ItemStack stack) {
+		return stack.getMaxStackSize();
+	}
+	
+	/**
+	 * 数量是物品的字段，但百分比需要的最大堆叠数由{@link net.minecraft.item.Item#getItemStackLimit}决定，可能是其他模组的代码
+	 */
+	@Override
+	public boolean requiresClientThread() {
+		return isPercentage();
+	}
+}
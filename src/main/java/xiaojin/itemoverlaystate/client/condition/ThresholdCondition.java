@@ -0,0 +1,186 @@
+package xiaojin.itemoverlaystate.client.condition;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.item.ItemStack;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+import javax.annotation.Nullable;
+import java.util.regex.Pattern;
+
+/**
+ * 数值阈值条件，支持数字和百分比两种写法
+ *
+ * <p>单个值表示下限（包含），如{@code 16}、{@code "50%"}。形如{@code "a..b"}的字符串表示范围，两端可以省略，
+ * 可以分别使用数字或百分比，默认包含两端，用{@code "(a..b]"}、{@code "[a..b)"}等指定是否包含。
+ * 编译时把数字边界统一换算为包含的整数，判断时只比较数值，不处理字符串</p>
+ */
+@SideOnly(Side.CLIENT)
+public abstract class ThresholdCondition implements IosCondition {
+	/**
+	 * 边界的数字部分
+	 */
+	private static final Pattern NUMBER = Pattern.compile("-?\\d+(\\.\\d+)?");
+	
+	private final int     min;          // 数字下界（包含），没有时为Integer.MIN_VALUE
+	private final int     max;          // 数字上界（包含），没有时为Integer.MAX_VALUE
+	private final float   minRatio;     // 百分比下界（0~1），没有时为负无穷
+	private final float   maxRatio;     // 百分比上界（0~1），没有时为正无穷
+	private final boolean minExclusive; // 百分比下界是否不包含
+	private final boolean maxExclusive; // 百分比上界是否不包含
+	private final boolean percentage;   // 是否有百分比边界
+	
+	protected ThresholdCondition(@Nullable Bound lower, @Nullable Bound upper) {
+		this.min = lower == null || lower.percentage ? Integer.MIN_VALUE : lower.asLower();
+		this.max = upper == null || upper.percentage ? Integer.MAX_VALUE : upper.asUpper();
+		this.minRatio = lower != null && lower.percentage ? (float) (lower.value / 100) : Float.NEGATIVE_INFINITY;
+		this.maxRatio = upper != null && upper.percentage ? (float) (upper.value / 100) : Float.POSITIVE_INFINITY;
+		this.minExclusive = lower != null && lower.exclusive;
+		this.maxExclusive = upper != null && upper.exclusive;
+		this.percentage = lower != null && lower.percentage || upper != null && upper.percentage;
+	}
+	
+	/**
+	 * 解析阈值，数字按绝对值处理，形如"50%"的字符串按百分比处理，形如"a..b"的字符串按范围处理
+	 *
+	 * @param json    谓词的值
+	 * @param factory 条件构造器
+	 * @return 编译后的条件，格式不正确或范围为空时返回恒为假的条件
+	 */
+	protected static IosCondition compile(JsonElement json, Factory factory) {
+		if (!json.isJsonPrimitive()) {
+			return IosConditions.FALSE;
+		}
+		JsonPrimitive primitive = json.getAsJsonPrimitive();
+		if (primitive.isNumber()) {
+			return factory.create(new Bound(primitive.getAsInt(), false, false), null);
+		}
+		if (!primitive.isString()) {
+			return IosConditions.FALSE;
+		}
+		String value = primitive.getAsString().trim();
+		int separator = value.indexOf("..");
+		if (separator < 0) {
+			Bound bound = Bound.parse(value, false);
+			return bound == null ? IosConditions.FALSE : factory.create(bound, null);
+		}
+		boolean minExclusive = false;
+		boolean maxExclusive = false;
+		String lower = value.substring(0, separator).trim();
+		String upper = value.substring(separator + 2).trim();
+		if (lower.startsWith("(") || lower.startsWith("[")) {
+			minExclusive = lower.charAt(0) == '(';
+			lower = lower.substring(1).trim();
+		}
+		if (upper.endsWith(")") || upper.endsWith("]")) {
+			maxExclusive = upper.charAt(upper.length() - 1) == ')';
+			upper = upper.substring(0, upper.length() - 1).trim();
+		}
+		Bound min = lower.isEmpty() ? null : Bound.parse(lower, minExclusive);
+		Bound max = upper.isEmpty() ? null : Bound.parse(upper, maxExclusive);
+		if (min == null && !lower.isEmpty() || max == null && !upper.isEmpty() || min == null && max == null) {
+			return IosConditions.FALSE;
+		}
+		ThresholdCondition condition = factory.create(min, max);
+		return condition.min > condition.max || condition.minRatio > condition.maxRatio ? IosConditions.FALSE : condition;
+	}
+	
+	@Override
+	public boolean test(ItemStack stack, @Nullable World world, @Nullable EntityLivingBase livingEntity) {
+		int current = getValue(stack);
+		if (current < min || current > max) {
+			return false;
+		}
+		if (!percentage) {
+			return true;
+		}
+		float ratio = (float) current / getMaxValue(stack);
+		return (minExclusive ? ratio > minRatio : ratio >= minRatio) && (maxExclusive ? ratio < maxRatio : ratio <= maxRatio);
+	}
+	
+	/**
+	 * @return 是否有百分比边界
+	 */
+	public boolean isPercentage() {
+		return percentage;
+	}
+	
+	/**
+	 * @return 数字下界（包含），没有下界时为{@link Integer#MIN_VALUE}
+	 */
+	public int getMin() {
+		return min;
+	}
+	
+	/**
+	 * @return 数字上界（包含），没有上界时为{@link Integer#MAX_VALUE}
+	 */
+	public int getMax() {
+		return max;
+	}
+	
+	/**
+	 * @return 物品当前的数值
+	 */
+	public abstract int getValue(ItemStack stack);
+	
+	/**
+	 * @return 物品数值的最大值，用于百分比判断
+	 */
+	public abstract int getMaxValue(ItemStack stack);
+	
+	protected interface Factory {
+		ThresholdCondition create(@Nullable Bound lower, @Nullable Bound upper);
+	}
+	
+	/**
+	 * 范围的一端，只在编译时使用
+	 */
+	protected static final class Bound {
+		private final double  value;      // 数字，百分比时为0~100
+		private final boolean percentage; // 是否为百分比
+		private final boolean exclusive;  // 是否不包含
+		
+		private Bound(double value, boolean percentage, boolean exclusive) {
+			this.value = value;
+			this.percentage = percentage;
+			this.exclusive = exclusive;
+		}
+		
+		/**
+		 * @return 边界，格式不正确时返回null
+		 */
+		@Nullable
+		private static Bound parse(String text, boolean exclusive) {
+			boolean percentage = text.endsWith("%");
+			if (percentage) {
+				text = text.substring(0, text.length() - 1).trim();
+			}
+			if (!NUMBER.matcher(text).matches()) {
+				return null;
+			}
+			return new Bound(Double.parseDouble(text), percentage, exclusive);
+		}
+		
+		/**
+		 * @return 作为下界时包含的最小整数
+		 */
+		private int asLower() {
+			return saturate(exclusive ? Math.floor(value) + 1 : Math.ceil(value));
+		}
+		
+		/**
+		 * @return 作为上界时包含的最大整数
+		 */
+		private int asUpper() {
+			return saturate(exclusive ? Math.ceil(value) - 1 : Math.floor(value));
+		}
+		
+		private static int saturate(double value) {
+			return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, value));
+		}
+	}
+}
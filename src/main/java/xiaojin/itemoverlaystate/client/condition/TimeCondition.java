@@ -0,0 +1,62 @@
+package xiaojin.itemoverlaystate.client.condition;
+
+import com.google.gson.JsonElement;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.item.ItemStack;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import xiaojin.itemoverlaystate.client.IosWorldClock;
+
+import javax.annotation.Nullable;
+
+/**
+ * ios:time，根据世界时间判断
+ */
+@SideOnly(Side.CLIENT)
+public final class TimeCondition implements IosCondition {
+	private final long time;
+	
+	private TimeCondition(long time) {
+		this.time = time;
+	}
+	
+	public static IosCondition compile(JsonElement json) {
+		if (!json.isJsonPrimitive() || !json.getAsJsonPrimitive().isNumber()) {
+			return IosConditions.FALSE;
+		}
+		return new TimeCondition(json.getAsLong());
+	}
+	
+	@Override
+	public boolean test(ItemStack stack, @Nullable World world, @Nullable EntityLivingBase livingEntity) {
+		if (!IosWorldClock.isPresent()) {
+			return false;
+		}
+		return IosWorldClock.getWorldTime() >= time;
+	}
+	
+	/**
+	 * @return 目标世界时间，世界时间不小于它时满足
+	 */
+	public long getTime() {
+		return time;
+	}
+	
+	/**
+	 * 世界时间每tick最多前进1，满足后只有时间跳变才会改变结果
+	 */
+	@Override
+	public long stableTicks() {
+		if (!IosWorldClock.isPresent()) {
+			return 0;
+		}
+		long remaining = time - IosWorldClock.getWorldTime();
+		return remaining > 0 ? remaining : Long.MAX_VALUE;
+	}
+	
+	@Override
+	public boolean dependsOnTime() {
+		return true;
+	}
+}
@@ -0,0 +1,62 @@
+package xiaojin.itemoverlaystate.client.condition;
+
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.item.ItemStack;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import xiaojin.itemoverlaystate.client.IosMetrics;
+
+import javax.annotation.Nullable;
+
+/**
+ * 记录判断耗时的条件，只在{@link IosMetrics#ENABLED}时由{@link IosConditions}包装
+ */
+@SideOnly(Side.CLIENT)
+public final class TimedCondition implements IosCondition {
+	private final IosConditionType type;
+	private final IosCondition     delegate;
+	
+	TimedCondition(IosConditionType type, IosCondition delegate) {
+		this.type = type;
+		this.delegate = delegate;
+	}
+	
+	/**
+	 * 去掉统计包装
+	 *
+	 * @param condition 条件
+	 * @return 被包装的条件，没有包装时返回原条件
+	 */
+	public static IosCondition unwrap(IosCondition condition) {
+		return condition instanceof TimedCondition timed ? timed.delegate : condition;
+	}
+	
+	@Override
+	public boolean test(ItemStack stack, @Nullable World world, @Nullable EntityLivingBase livingEntity) {
+		long start = System.nanoTime();
+		boolean result = delegate.test(stack, world, livingEntity);
+		IosMetrics.recordCondition(type, start);
+		return result;
+	}
+	
+	@Override
+	public boolean dependsOnWorld() {
+		return delegate.dependsOnWorld();
+	}
+	
+	@Override
+	public long stableTicks() {
+		return delegate.stableTicks();
+	}
+	
+	@Override
+	public boolean dependsOnTime() {
+		return delegate.dependsOnTime();
+	}
+	
+	@Override
+	public boolean requiresClientThread() {
+		return delegate.requiresClientThread();
+	}
+}
@@ -0,0 +1,106 @@
+package xiaojin.itemoverlaystate.client.condition.nbt;
+
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTBase;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import xiaojin.itemoverlaystate.mixinimod.IModItemStack;
+
+import javax.annotation.Nullable;
+
+/**
+ * 物品NBT的只读视图
+ *
+ * <p>结构与{@link ItemStack#serializeNBT()}的结果相同，但直接读取物品的字段，不复制NBT</p>
+ */
+@SideOnly(Side.CLIENT)
+public final class ItemStackNbtView {
+	public static final int ID         = 0; // 物品ID，字符串
+	public static final int COUNT      = 1; // 数量，字节型
+	public static final int DAMAGE     = 2; // 损坏值，短整型
+	public static final int TAG        = 3; // 物品的tag，复合标签
+	public static final int FORGE_CAPS = 4; // Forge能力，需要序列化才能读取
+	public static final int OTHER      = 5; // 其他键，序列化结果中不存在
+	
+	private static final ResourceLocation AIR = new ResourceLocation("minecraft", "air");
+	
+	private ItemStackNbtView() {
+	}
+	
+	/**
+	 * 获取根键对应的字段
+	 *
+	 * @param key 序列化结果中的根键
+	 * @return 字段编号
+	 */
+	public static int keyOf(String key) {
+		switch (key) {
+			case "id":
+				return ID;
+			case "Count":
+				return COUNT;
+			case "Damage":
+				return DAMAGE;
+			case "tag":
+				return TAG;
+			case "ForgeCaps":
+				return FORGE_CAPS;
+			default:
+				return OTHER;
+		}
+	}
+	
+	/**
+	 * 判断序列化结果中是否存在该根键
+	 *
+	 * @param key 字段编号
+	 * @return 如果存在返回true，否则返回false
+	 */
+	public static boolean hasKey(ItemStack stack, int key) {
+		switch (key) {
+			case ID, COUNT, DAMAGE:
+				return true;
+			case TAG:
+				return stack.getTagCompound() != null;
+			case FORGE_CAPS:
+				return getForgeCaps(stack) != null;
+			default:
+				return false;
+		}
+	}
+	
+	/**
+	 * @return 序列化结果中的id
+	 */
+	public static ResourceLocation getId(ItemStack stack) {
+		ResourceLocation id = stack.getItem().getRegistryName();
+		return id == null ? AIR : id;
+	}
+	
+	/**
+	 * @return 序列化结果中的Count
+	 */
+	public static byte getCount(ItemStack stack) {
+		return (byte) stack.getCount();
+	}
+	
+	/**
+	 * @return 序列化结果中的Damage，与序列化一样读取原始字段
+	 */
+	public static short getDamage(ItemStack stack) {
+		return (short) IModItemStack.getRawItemDamage(stack);
+	}
+	
+	/**
+	 * 获取Forge能力，能力只有序列化后才能读取，所以只在谓词用到ForgeCaps时调用
+	 *
+	 * @return 序列化结果中的ForgeCaps，不存在时返回null
+	 */
+	@Nullable
+	public static NBTBase getForgeCaps(ItemStack stack) {
+		NBTTagCompound nbt = stack.serializeNBT();
+		return nbt.getTag("ForgeCaps");
+	}
+}
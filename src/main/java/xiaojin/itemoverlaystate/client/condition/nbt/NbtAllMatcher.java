@@ -0,0 +1,27 @@
+package xiaojin.itemoverlaystate.client.condition.nbt;
+
+import net.minecraft.nbt.NBTBase;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * JSON数组，NBT需要满足全部匹配器
+ */
+@SideOnly(Side.CLIENT)
+public final class NbtAllMatcher implements NbtMatcher {
+	private final NbtMatcher[] matchers;
+	
+	NbtAllMatcher(NbtMatcher[] matchers) {
+		this.matchers = matchers;
+	}
+	
+	@Override
+	public boolean matches(NBTBase nbt) {
+		for (NbtMatcher matcher : matchers) {
+			if (!matcher.matches(nbt)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,257 @@
+package xiaojin.itemoverlaystate.client.condition.nbt;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+import java.util.Arrays;
+
+/**
+ * 字节数组、整型数组和长整型数组的包含判断
+ *
+ * <p>JSON数组在编译时转换为去重排序后的基本类型数组（字节型为256位的位图），
+ * 匹配时直接遍历NBT中的原始数组，不装箱也不复制</p>
+ */
+@SideOnly(Side.CLIENT)
+public final class NbtArrayMatcher {
+	/**
+	 * 元素不多于该值时直接双重循环
+	 */
+	private static final int                 SMALL   = 4;
+	private static final ThreadLocal<long[]> SCRATCH = ThreadLocal.withInitial(() -> new long[4]);
+	
+	private final long[] byteMask; // 需要包含的字节，JSON元素无法转换为字节时为null
+	private final int    byteCount;
+	private final int[]  ints;     // 需要包含的整数，JSON元素无法转换为整数时为null
+	private final long[] longs;    // 需要包含的长整数，JSON元素无法转换为长整数时为null
+	
+	NbtArrayMatcher(JsonArray array) {
+		long[] byteMask = new long[4];
+		int[] ints = new int[array.size()];
+		long[] longs = new long[array.size()];
+		boolean bytesValid = true;
+		boolean intsValid = true;
+		boolean longsValid = true;
+		for (int i = 0; i < array.size(); i++) {
+			JsonElement element = array.get(i);
+			try {
+				int b = element.getAsByte() & 0xFF;
+				byteMask[b >>> 6] |= 1L << b;
+			} catch (RuntimeException e) {
+				bytesValid = false;
+			}
+			try {
+				ints[i] = element.getAsInt();
+			} catch (RuntimeException e) {
+				intsValid = false;
+			}
+			try {
+				longs[i] = element.getAsLong();
+			} catch (RuntimeException e) {
+				longsValid = false;
+			}
+		}
+		this.byteMask = bytesValid ? byteMask : null;
+		this.byteCount = Long.bitCount(byteMask[0]) + Long.bitCount(byteMask[1]) + Long.bitCount(byteMask[2]) + Long.bitCount(byteMask[3]);
+		this.ints = intsValid ? Arrays.stream(ints).distinct().sorted().toArray() : null;
+		this.longs = longsValid ? Arrays.stream(longs).distinct().sorted().toArray() : null;
+	}
+	
+	/**
+	 * 字节数组判断
+	 *
+	 * @return 如果数组包含全部元素返回true，否则返回false
+	 */
+	boolean matchesBytes(byte[] data) {
+		if (byteMask == null) {
+			return false;
+		}
+		if (byteCount == 0) {
+			return true;
+		}
+		if (data.length < byteCount) {
+			return false;
+		}
+		long found0 = 0, found1 = 0, found2 = 0, found3 = 0;
+		int found = 0;
+		for (byte value : data) {
+			int b = value & 0xFF;
+			long bit = 1L << b;
+			if ((byteMask[b >>> 6] & bit) == 0) {
+				continue;
+			}
+			switch (b >>> 6) {
+				case 0:
+					if ((found0 & bit) != 0) {
+						continue;
+					}
+					found0 |= bit;
+					break;
+				case 1:
+					if ((found1 & bit) != 0) {
+						continue;
+					}
+					found1 |= bit;
+					break;
+				case 2:
+					if ((found2 & bit) != 0) {
+						continue;
+					}
+					found2 |= bit;
+					break;
+				default:
+					if ((found3 & bit) != 0) {
+						continue;
+					}
+					found3 |= bit;
+					break;
+			}
+			if (++found == byteCount) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * 整型数组判断
+	 *
+	 * @return 如果数组包含全部元素返回true，否则返回false
+	 */
+	boolean matchesInts(int[] data) {
+		int[] required = ints;
+		if (required == null) {
+			return false;
+		}
+		int m = required.length;
+		if (m == 0) {
+			return true;
+		}
+		if (data.length < m) {
+			return false;
+		}
+		// 元素较少时直接查找，每个元素找不到就提前结束
+		if (m <= SMALL || data.length <= SMALL) {
+			for (int value : required) {
+				if (!contains(data, value)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		// 遍历一次NBT数组，在排序后的JSON数组中二分查找并标记，全部标记后提前结束
+		if (m <= 64) {
+			long full = m == 64 ? -1L : (1L << m) - 1;
+			long mask = 0;
+			for (int value : data) {
+				int index = Arrays.binarySearch(required, value);
+				if (index >= 0) {
+					mask |= 1L << index;
+					if (mask == full) {
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+		long[] seen = scratch(m);
+		int found = 0;
+		for (int value : data) {
+			int index = Arrays.binarySearch(required, value);
+			if (index >= 0 && (seen[index >>> 6] & (1L << index)) == 0) {
+				seen[index >>> 6] |= 1L << index;
+				if (++found == m) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * 长整型数组判断
+	 *
+	 * @return 如果数组包含全部元素返回true，否则返回false
+	 */
+	boolean matchesLongs(long[] data) {
+		long[] required = longs;
+		if (required == null) {
+			return false;
+		}
+		int m = required.length;
+		if (m == 0) {
+			return true;
+		}
+		if (data.length < m) {
+			return false;
+		}
+		if (m <= SMALL || data.length <= SMALL) {
+			for (long value : required) {
+				if (!contains(data, value)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		if (m <= 64) {
+			long full = m == 64 ? -1L : (1L << m) - 1;
+			long mask = 0;
+			for (long value : data) {
+				int index = Arrays.binarySearch(required, value);
+				if (index >= 0) {
+					mask |= 1L << index;
+					if (mask == full) {
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+		long[] seen = scratch(m);
+		int found = 0;
+		for (long value : data) {
+			int index = Arrays.binarySearch(required, value);
+			if (index >= 0 && (seen[index >>> 6] & (1L << index)) == 0) {
+				seen[index >>> 6] |= 1L << index;
+				if (++found == m) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+	
+	private static boolean contains(int[] data, int value) {
+		for (int i : data) {
+			if (i == value) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private static boolean contains(long[] data, long value) {
+		for (long l : data) {
+			if (l == value) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * 获取清零后的标记位图，超过64个元素时才会用到
+	 */
+	private static long[] scratch(int size) {
+		int words = (size + 63) >>> 6;
+		long[] seen = SCRATCH.get();
+		if (seen.length < words) {
+			seen = new long[words];
+			SCRATCH.set(seen);
+		} else {
+			Arrays.fill(seen, 0, words, 0);
+		}
+		return seen;
+	}
+}
@@ -0,0 +1,34 @@
+package xiaojin.itemoverlaystate.client.condition.nbt;
+
+import net.minecraft.nbt.NBTBase;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * JSON对象，NBT需要为复合标签，且每个键的值都满足对应的匹配器
+ */
+@SideOnly(Side.CLIENT)
+public final class NbtCompoundMatcher implements NbtMatcher {
+	private final String[]          keys;
+	private final NbtValueMatcher[] values;
+	
+	NbtCompoundMatcher(String[] keys, NbtValueMatcher[] values) {
+		this.keys = keys;
+		this.values = values;
+	}
+	
+	@Override
+	public boolean matches(NBTBase nbt) {
+		if (!(nbt instanceof NBTTagCompound compound)) {
+			return false;
+		}
+		for (int i = 0; i < keys.length; i++) {
+			NBTBase tag = compound.getTag(keys[i]);
+			if (tag == null || !values[i].matches(tag)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
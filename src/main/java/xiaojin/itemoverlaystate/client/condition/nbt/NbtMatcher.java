@@ -0,0 +1,18 @@
+package xiaojin.itemoverlaystate.client.condition.nbt;
+
+import net.minecraft.nbt.NBTBase;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * 编译后的NBT匹配器
+ */
+@SideOnly(Side.CLIENT)
+public interface NbtMatcher {
+	/**
+	 * NBT判断
+	 *
+	 * @return 如果条件不满足返回false，满足返回true
+	 */
+	boolean matches(NBTBase nbt);
+}
@@ -0,0 +1,54 @@
+package xiaojin.itemoverlaystate.client.condition.nbt;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+import java.util.Map;
+
+/**
+ * NBT匹配器编译工具
+ */
+@SideOnly(Side.CLIENT)
+public final class NbtMatchers {
+	/**
+	 * 恒为假的匹配器
+	 */
+	public static final NbtMatcher FALSE = nbt -> false;
+	
+	private NbtMatchers() {
+	}
+	
+	/**
+	 * 编译NBT匹配器
+	 *
+	 * <p>JSON数组要求NBT满足全部元素，JSON对象要求NBT为复合标签并包含对象中的全部键，其他JSON恒不满足</p>
+	 *
+	 * @param json JSON元素
+	 * @return 编译后的匹配器
+	 */
+	public static NbtMatcher compile(JsonElement json) {
+		if (json.isJsonArray()) {
+			JsonArray array = json.getAsJsonArray();
+			NbtMatcher[] matchers = new NbtMatcher[array.size()];
+			for (int i = 0; i < matchers.length; i++) {
+				matchers[i] = compile(array.get(i));
+			}
+			return new NbtAllMatcher(matchers);
+		} else if (json.isJsonObject()) {
+			JsonObject object = json.getAsJsonObject();
+			String[] keys = new String[object.size()];
+			NbtValueMatcher[] values = new NbtValueMatcher[keys.length];
+			int i = 0;
+			for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+				keys[i] = entry.getKey();
+				values[i] = new NbtValueMatcher(entry.getValue());
+				i++;
+			}
+			return new NbtCompoundMatcher(keys, values);
+		}
+		return FALSE;
+	}
+}
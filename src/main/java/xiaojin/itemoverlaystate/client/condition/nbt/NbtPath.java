@@ -0,0 +1,363 @@
+package xiaojin.itemoverlaystate.client.condition.nbt;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.*;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import xiaojin.itemoverlaystate.mixinimod.IModNBTTagLongArray;
+
+import javax.annotation.Nullable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * NBT路径比较，格式为{"path": "tag.BlockEntityTag.Items[0].id", "op": "==", "value": "minecraft:stone"}
+ *
+ * <p>路径从{@link ItemStack#serializeNBT()}的根开始，第一段是id、Count、Damage、tag或ForgeCaps，之后每段是复合标签的键或列表、数组的下标，
+ * 负数下标从末尾数起，含有.或[的键用双引号括起。路径在编译时拆分为键和下标，判断时从{@link ItemStackNbtView}逐层向下查找，不分配对象。
+ * op可以是==、!=、&lt;、&lt;=、&gt;、&gt;=或exists，省略时有value为==，没有value为exists，exists的value只能是true或false。
+ * 数字与任意数字类型比较，字符串与字符串比较，布尔值与数字是否非0比较；路径不存在时只有exists为false满足，类型不同时只有!=满足</p>
+ */
+@SideOnly(Side.CLIENT)
+public final class NbtPath {
+	private static final int EQ     = 0;
+	private static final int NE     = 1;
+	private static final int LT     = 2;
+	private static final int LE     = 3;
+	private static final int GT     = 4;
+	private static final int GE     = 5;
+	private static final int EXISTS = 6;
+	
+	private static final int NONE    = 0; // 没有值
+	private static final int BOOLEAN = 1;
+	private static final int INTEGER = 2; // 可以精确表示为long的数字
+	private static final int DECIMAL = 3;
+	private static final int STRING  = 4;
+	
+	private final int      root;    // 第一段对应的字段，见ItemStackNbtView
+	private final String[] keys;    // 之后每段的键，下标段为null
+	private final int[]    indices; // 之后每段的下标
+	private final int      op;
+	private final int      kind;    // 比较值的类型
+	private final boolean  expectedBoolean; // exists时为期望是否存在
+	private final long     expectedLong;
+	private final double   expectedDouble;
+	private final String   expectedString;
+	
+	private NbtPath(int root, String[] keys, int[] indices, int op, int kind, boolean expectedBoolean, long expectedLong, double expectedDouble, @Nullable String expectedString) {
+		this.root = root;
+		this.keys = keys;
+		this.indices = indices;
+		this.op = op;
+		this.kind = kind;
+		this.expectedBoolean = expectedBoolean;
+		this.expectedLong = expectedLong;
+		this.expectedDouble = expectedDouble;
+		this.expectedString = expectedString;
+	}
+	
+	/**
+	 * 编译NBT路径比较
+	 *
+	 * @param json JSON对象
+	 * @return 编译后的比较
+	 * @throws IllegalArgumentException 格式不正确时抛出
+	 */
+	public static NbtPath compile(JsonElement json) {
+		if (!json.isJsonObject()) {
+			throw new IllegalArgumentException("Expected an object with path, op and value");
+		}
+		JsonObject object = json.getAsJsonObject();
+		JsonElement path = object.get("path");
+		if (path == null || !path.isJsonPrimitive() || !path.getAsJsonPrimitive().isString()) {
+			throw new IllegalArgumentException("Missing path");
+		}
+		List<String> segments = new ArrayList<>();
+		List<Integer> indices = new ArrayList<>();
+		parse(path.getAsString(), segments, indices);
+		int root = ItemStackNbtView.keyOf(segments.get(0));
+		String[] keyArray = segments.subList(1, segments.size()).toArray(new String[0]);
+		int[] indexArray = new int[keyArray.length];
+		for (int i = 0; i < indexArray.length; i++) {
+			indexArray[i] = indices.get(i + 1);
+		}
+		
+		JsonElement value = object.get("value");
+		JsonPrimitive primitive = value != null && value.isJsonPrimitive() ? value.getAsJsonPrimitive() : null;
+		if (value != null && !value.isJsonNull() && primitive == null) {
+			throw new IllegalArgumentException("Value must be a number, string or boolean");
+		}
+		JsonElement opJson = object.get("op");
+		int op = opJson == null ? (primitive == null ? EXISTS : EQ) : opOf(opJson.getAsString());
+		if (op == EXISTS) {
+			if (primitive != null && !primitive.isBoolean()) {
+				throw new IllegalArgumentException("exists only supports true or false");
+			}
+			boolean expected = primitive == null || primitive.getAsBoolean();
+			return new NbtPath(root, keyArray, indexArray, op, NONE, expected, 0, 0, null);
+		}
+		if (primitive == null) {
+			throw new IllegalArgumentException("Missing value");
+		}
+		if (primitive.isBoolean()) {
+			if (op != EQ && op != NE) {
+				throw new IllegalArgumentException("Booleans only support == and !=");
+			}
+			return new NbtPath(root, keyArray, indexArray, op, BOOLEAN, primitive.getAsBoolean(), 0, 0, null);
+		}
+		if (primitive.isNumber()) {
+			BigDecimal decimal = primitive.getAsBigDecimal();
+			try {
+				return new NbtPath(root, keyArray, indexArray, op, INTEGER, false, decimal.longValueExact(), decimal.doubleValue(), null);
+			} catch (ArithmeticException e) {
+				return new NbtPath(root, keyArray, indexArray, op, DECIMAL, false, 0, decimal.doubleValue(), null);
+			}
+		}
+		return new NbtPath(root, keyArray, indexArray, op, STRING, false, 0, 0, primitive.getAsString());
+	}
+	
+	private static int opOf(String op) {
+		switch (op) {
+			case "==":
+				return EQ;
+			case "!=":
+				return NE;
+			case "<":
+				return LT;
+			case "<=":
+				return LE;
+			case ">":
+				return GT;
+			case ">=":
+				return GE;
+			case "exists":
+				return EXISTS;
+			default:
+				throw new IllegalArgumentException("Unknown op " + op);
+		}
+	}
+	
+	/**
+	 * 拆分路径，键段的下标为0，下标段的键为null
+	 */
+	private static void parse(String path, List<String> keys, List<Integer> indices) {
+		int length = path.length();
+		int i = 0;
+		while (true) {
+			// 键
+			StringBuilder key = new StringBuilder();
+			if (i < length && path.charAt(i) == '"') {
+				i++;
+				while (i < length && path.charAt(i) != '"') {
+					char c = path.charAt(i++);
+					if (c == '\\' && i < length) {
+						c = path.charAt(i++);
+					}
+					key.append(c);
+				}
+				if (i >= length) {
+					throw new IllegalArgumentException("Unterminated quote in " + path);
+				}
+				i++;
+			} else {
+				while (i < length && path.charAt(i) != '.' && path.charAt(i) != '[') {
+					key.append(path.charAt(i++));
+				}
+				if (key.length() == 0) {
+					throw new IllegalArgumentException("Empty key in " + path);
+				}
+			}
+			keys.add(key.toString());
+			indices.add(0);
+			// 下标
+			while (i < length && path.charAt(i) == '[') {
+				int end = path.indexOf(']', i);
+				if (end < 0) {
+					throw new IllegalArgumentException("Unterminated index in " + path);
+				}
+				try {
+					indices.add(Integer.parseInt(path.substring(i + 1, end).trim()));
+				} catch (NumberFormatException e) {
+					throw new IllegalArgumentException("Invalid index in " + path, e);
+				}
+				keys.add(null);
+				i = end + 1;
+			}
+			if (i >= length) {
+				return;
+			}
+			if (path.charAt(i) != '.') {
+				throw new IllegalArgumentException("Unexpected character '" + path.charAt(i) + "' in " + path);
+			}
+			i++;
+		}
+	}
+	
+	/**
+	 * @return 是否读取ForgeCaps，读取时会调用其他模组的能力序列化
+	 */
+	public boolean readsForgeCaps() {
+		return root == ItemStackNbtView.FORGE_CAPS;
+	}
+	
+	/**
+	 * 物品NBT判断
+	 *
+	 * @return 如果条件不满足返回false，满足返回true
+	 */
+	public boolean matches(ItemStack stack) {
+		if (keys.length > 0 && root != ItemStackNbtView.TAG && root != ItemStackNbtView.FORGE_CAPS) {
+			return absent();
+		}
+		switch (root) {
+			case ItemStackNbtView.ID:
+				return compareId(ItemStackNbtView.getId(stack));
+			case ItemStackNbtView.COUNT:
+				return compareNumber(ItemStackNbtView.getCount(stack));
+			case ItemStackNbtView.DAMAGE:
+				return compareNumber(ItemStackNbtView.getDamage(stack));
+			case ItemStackNbtView.TAG:
+				return matches(stack.getTagCompound());
+			case ItemStackNbtView.FORGE_CAPS:
+				return matches(ItemStackNbtView.getForgeCaps(stack));
+			default:
+				return absent();
+		}
+	}
+	
+	/**
+	 * 从第二段开始向下查找
+	 */
+	private boolean matches(@Nullable NBTBase nbt) {
+		NBTBase current = nbt;
+		for (int i = 0; i < keys.length && current != null; i++) {
+			String key = keys[i];
+			if (key != null) {
+				current = current instanceof NBTTagCompound compound ? compound.getTag(key) : null;
+				continue;
+			}
+			int index = indices[i];
+			if (current instanceof NBTTagList list) {
+				int size = list.tagCount();
+				int position = index < 0 ? size + index : index;
+				current = position >= 0 && position < size ? list.get(position) : null;
+			} else if (i == keys.length - 1 && current instanceof NBTTagByteArray array) {
+				byte[] values = array.getByteArray();
+				int position = index < 0 ? values.length + index : index;
+				return position >= 0 && position < values.length ? compareNumber(values[position]) : absent();
+			} else if (i == keys.length - 1 && current instanceof NBTTagIntArray array) {
+				int[] values = array.getIntArray();
+				int position = index < 0 ? values.length + index : index;
+				return position >= 0 && position < values.length ? compareNumber(values[position]) : absent();
+			} else if (i == keys.length - 1 && current instanceof NBTTagLongArray array) {
+				long[] values = IModNBTTagLongArray.getLongArray(array);
+				int position = index < 0 ? values.length + index : index;
+				return position >= 0 && position < values.length ? compareNumber(values[position]) : absent();
+			} else {
+				current = null;
+			}
+		}
+		if (current == null) {
+			return absent();
+		}
+		if (op == EXISTS) {
+			return expectedBoolean;
+		}
+		if (current instanceof NBTPrimitive number) {
+			boolean floating = current instanceof NBTTagFloat || current instanceof NBTTagDouble;
+			return floating ? compareDecimal(number.getDouble()) : compareNumber(number.getLong());
+		}
+		if (current instanceof NBTTagString string) {
+			return kind == STRING ? result(string.getString().compareTo(expectedString)) : op == NE;
+		}
+		return op == NE;
+	}
+	
+	/**
+	 * 路径不存在时的结果
+	 */
+	private boolean absent() {
+		return op == EXISTS && !expectedBoolean;
+	}
+	
+	/**
+	 * 与整数类型的值比较，包括物品的Count和Damage
+	 */
+	private boolean compareNumber(long value) {
+		switch (kind) {
+			case NONE:
+				return op == EXISTS && expectedBoolean;
+			case BOOLEAN:
+				return ((value != 0) == expectedBoolean) == (op == EQ);
+			case INTEGER:
+				return result(Long.compare(value, expectedLong));
+			case DECIMAL:
+				return compareDecimal(value);
+			default:
+				return op == NE;
+		}
+	}
+	
+	private boolean compareDecimal(double value) {
+		switch (kind) {
+			case NONE:
+				return op == EXISTS && expectedBoolean;
+			case BOOLEAN:
+				return ((value != 0) == expectedBoolean) == (op == EQ);
+			case INTEGER, DECIMAL:
+				if (Double.isNaN(value)) {
+					return op == NE;
+				}
+				return result(value < expectedDouble ? -1 : value > expectedDouble ? 1 : 0);
+			default:
+				return op == NE;
+		}
+	}
+	
+	/**
+	 * 与物品ID比较，==和!=不拼接字符串
+	 */
+	private boolean compareId(ResourceLocation id) {
+		if (op == EXISTS) {
+			return expectedBoolean;
+		}
+		if (kind != STRING) {
+			return op == NE;
+		}
+		if (op == EQ || op == NE) {
+			String namespace = id.getNamespace();
+			String path = id.getPath();
+			int length = namespace.length();
+			boolean equal = expectedString.length() == length + 1 + path.length()
+					&& expectedString.startsWith(namespace)
+					&& expectedString.charAt(length) == ':'
+					&& expectedString.startsWith(path, length + 1);
+			return equal == (op == EQ);
+		}
+		return result(id.toString().compareTo(expectedString));
+	}
+	
+	private boolean result(int comparison) {
+		switch (op) {
+			case EQ:
+				return comparison == 0;
+			case NE:
+				return comparison != 0;
+			case LT:
+				return comparison < 0;
+			case LE:
+				return comparison <= 0;
+			case GT:
+				return comparison > 0;
+			case GE:
+				return comparison >= 0;
+			default:
+				return false;
+		}
+	}
+}
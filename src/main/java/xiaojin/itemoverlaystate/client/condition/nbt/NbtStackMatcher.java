@@ -0,0 +1,135 @@
+package xiaojin.itemoverlaystate.client.condition.nbt;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTBase;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+import java.util.Map;
+
+import static xiaojin.itemoverlaystate.client.condition.nbt.ItemStackNbtView.*;
+
+/**
+ * 物品NBT匹配器
+ *
+ * <p>与对{@link ItemStack#serializeNBT()}的结果使用{@link NbtMatchers#compile}编译的匹配器等价，
+ * 但通过{@link ItemStackNbtView}直接读取物品的字段，匹配时不分配对象</p>
+ */
+@SideOnly(Side.CLIENT)
+public final class NbtStackMatcher {
+	/**
+	 * 恒为假的匹配器
+	 */
+	private static final NbtStackMatcher FALSE = new NbtStackMatcher(null, new int[0], new NbtValueMatcher[0], false);
+	
+	private final NbtStackMatcher[] elements; // JSON数组时不为null，需要满足全部元素
+	private final int[]             keys;     // JSON对象的根键
+	private final NbtValueMatcher[] values;
+	private final boolean           object;   // JSON是否为对象
+	
+	private NbtStackMatcher(NbtStackMatcher[] elements, int[] keys, NbtValueMatcher[] values, boolean object) {
+		this.elements = elements;
+		this.keys = keys;
+		this.values = values;
+		this.object = object;
+	}
+	
+	/**
+	 * 编译物品NBT匹配器
+	 *
+	 * @param json JSON元素
+	 * @return 编译后的匹配器
+	 */
+	public static NbtStackMatcher compile(JsonElement json) {
+		if (json.isJsonArray()) {
+			JsonArray array = json.getAsJsonArray();
+			NbtStackMatcher[] elements = new NbtStackMatcher[array.size()];
+			for (int i = 0; i < elements.length; i++) {
+				elements[i] = compile(array.get(i));
+			}
+			return new NbtStackMatcher(elements, null, null, false);
+		} else if (json.isJsonObject()) {
+			JsonObject object = json.getAsJsonObject();
+			int[] keys = new int[object.size()];
+			NbtValueMatcher[] values = new NbtValueMatcher[keys.length];
+			int i = 0;
+			for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+				keys[i] = keyOf(entry.getKey());
+				values[i] = new NbtValueMatcher(entry.getValue());
+				i++;
+			}
+			return new NbtStackMatcher(null, keys, values, true);
+		}
+		return FALSE;
+	}
+	
+	/**
+	 * 物品NBT判断
+	 *
+	 * @return 如果条件不满足返回false，满足返回true
+	 */
+	public boolean matches(ItemStack stack) {
+		if (elements != null) {
+			for (NbtStackMatcher element : elements) {
+				if (!element.matches(stack)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		if (!object) {
+			return false;
+		}
+		for (int i = 0; i < keys.length; i++) {
+			if (!matches(stack, keys[i], values[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * @return 是否读取ForgeCaps，读取时会调用其他模组的能力序列化
+	 */
+	public boolean readsForgeCaps() {
+		if (elements != null) {
+			for (NbtStackMatcher element : elements) {
+				if (element.readsForgeCaps()) {
+					return true;
+				}
+			}
+			return false;
+		}
+		for (int key : keys) {
+			if (key == FORGE_CAPS) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private static boolean matches(ItemStack stack, int key, NbtValueMatcher value) {
+		switch (key) {
+			case ID:
+				return value.matchesId(getId(stack));
+			case COUNT:
+				return value.matchesByte(getCount(stack));
+			case DAMAGE:
+				return value.matchesShort(getDamage(stack));
+			case TAG: {
+				NBTTagCompound tag = stack.getTagCompound();
+				return tag != null && value.matches(tag);
+			}
+			case FORGE_CAPS: {
+				NBTBase caps = getForgeCaps(stack);
+				return caps != null && value.matches(caps);
+			}
+			default:
+				return false;
+		}
+	}
+}
@@ -0,0 +1,181 @@
+package xiaojin.itemoverlaystate.client.condition.nbt;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+import net.minecraft.nbt.*;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.common.util.Constants;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import xiaojin.itemoverlaystate.mixinimod.IModNBTTagLongArray;
+
+/**
+ * 复合标签中单个键的值匹配器
+ *
+ * <p>JSON的值在编译时按可能遇到的NBT类型预先解析，匹配时根据NBT的类型选择判断方式</p>
+ */
+@SideOnly(Side.CLIENT)
+public final class NbtValueMatcher implements NbtMatcher {
+	private static final int NOT_NUMBER = 0;
+	private static final int BOOLEAN    = 1;
+	private static final int NUMBER     = 2;
+	
+	private final int             numberKind; // JSON值的数字类型
+	private final boolean         booleanValue;
+	private final byte            byteValue;
+	private final short           shortValue;
+	private final int             intValue;
+	private final long            longValue;
+	private final float           floatValue;
+	private final double          doubleValue;
+	private final String          stringValue; // JSON值为字符串时不为null
+	private final NbtArrayMatcher array; // JSON值为数组时不为null
+	private final NbtMatcher      nested; // 列表元素和复合标签使用的匹配器
+	private final boolean         objectValue; // JSON值是否为对象
+	
+	NbtValueMatcher(JsonElement value) {
+		JsonPrimitive primitive = value.isJsonPrimitive() ? value.getAsJsonPrimitive() : null;
+		if (primitive != null && primitive.isBoolean()) {
+			numberKind = BOOLEAN;
+			booleanValue = primitive.getAsBoolean();
+		} else {
+			numberKind = primitive != null && primitive.isNumber() ? NUMBER : NOT_NUMBER;
+			booleanValue = false;
+		}
+		if (numberKind == NUMBER) {
+			Number number = primitive.getAsNumber();
+			byteValue = number.byteValue();
+			shortValue = number.shortValue();
+			intValue = number.intValue();
+			longValue = number.longValue();
+			floatValue = number.floatValue();
+			doubleValue = number.doubleValue();
+		} else {
+			byteValue = 0;
+			shortValue = 0;
+			intValue = 0;
+			longValue = 0;
+			floatValue = 0;
+			doubleValue = 0;
+		}
+		stringValue = primitive != null && primitive.isString() ? primitive.getAsString() : null;
+		array = value.isJsonArray() ? new NbtArrayMatcher(value.getAsJsonArray()) : null;
+		objectValue = value.isJsonObject();
+		nested = array != null || objectValue ? NbtMatchers.compile(value) : NbtMatchers.FALSE;
+	}
+	
+	@Override
+	public boolean matches(NBTBase nbt) {
+		switch (nbt.getId()) {
+			// 字节型 短整型 整型 长整型 单精度浮点型 双精度浮点型
+			case Constants.NBT.TAG_BYTE, Constants.NBT.TAG_SHORT, Constants.NBT.TAG_INT,
+			     Constants.NBT.TAG_LONG, Constants.NBT.TAG_FLOAT, Constants.NBT.TAG_DOUBLE:
+				return matchesNumber(nbt);
+			// 字节数组 整型数组 长整型数组 列表
+			case Constants.NBT.TAG_BYTE_ARRAY, Constants.NBT.TAG_INT_ARRAY, Constants.NBT.TAG_LONG_ARRAY,
+			     Constants.NBT.TAG_LIST:
+				return matchesArray(nbt);
+			// 字符串
+			case Constants.NBT.TAG_STRING:
+				return stringValue != null && stringValue.equals(((NBTTagString) nbt).getString());
+			// 复合标签(对象)
+			case Constants.NBT.TAG_COMPOUND:
+				return objectValue && nested.matches(nbt);
+			default:
+				return true;
+		}
+	}
+	
+	/**
+	 * 数字判断，NBT的值不小于JSON的值时满足，布尔值只与字节型比较
+	 *
+	 * @return 如果条件不满足返回false，满足返回true
+	 */
+	private boolean matchesNumber(NBTBase nbt) {
+		if (nbt instanceof NBTTagByte tag) {
+			return matchesByte(tag.getByte());
+		} else if (nbt instanceof NBTTagShort tag) {
+			return matchesShort(tag.getShort());
+		} else if (numberKind == BOOLEAN) {
+			return true;
+		} else if (numberKind == NUMBER) {
+			if (nbt instanceof NBTTagInt tag) {
+				return tag.getInt() >= intValue;
+			} else if (nbt instanceof NBTTagLong tag) {
+				return tag.getLong() >= longValue;
+			} else if (nbt instanceof NBTTagFloat tag) {
+				return tag.getFloat() >= floatValue;
+			} else if (nbt instanceof NBTTagDouble tag) {
+				return tag.getDouble() >= doubleValue;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * 字节型判断
+	 *
+	 * @return 如果条件不满足返回false，满足返回true
+	 */
+	boolean matchesByte(byte value) {
+		if (numberKind == BOOLEAN) {
+			return (value != 0) == booleanValue;
+		}
+		return numberKind == NUMBER && value >= byteValue;
+	}
+	
+	/**
+	 * 短整型判断
+	 *
+	 * @return 如果条件不满足返回false，满足返回true
+	 */
+	boolean matchesShort(short value) {
+		if (numberKind == BOOLEAN) {
+			return true;
+		}
+		return numberKind == NUMBER && value >= shortValue;
+	}
+	
+	/**
+	 * 字符串判断，与{@code id.toString()}比较但不拼接字符串
+	 *
+	 * @return 如果条件不满足返回false，满足返回true
+	 */
+	boolean matchesId(ResourceLocation id) {
+		if (stringValue == null) {
+			return false;
+		}
+		String namespace = id.getNamespace();
+		String path = id.getPath();
+		int length = namespace.length();
+		return stringValue.length() == length + 1 + path.length()
+				&& stringValue.startsWith(namespace)
+				&& stringValue.charAt(length) == ':'
+				&& stringValue.startsWith(path, length + 1);
+	}
+	
+	/**
+	 * 数组判断，数组需要包含JSON中的全部元素，列表的每个元素都需要满足JSON
+	 *
+	 * @return 如果条件不满足返回false，满足返回true
+	 */
+	private boolean matchesArray(NBTBase nbt) {
+		if (array == null) {
+			return false;
+		}
+		if (nbt instanceof NBTTagByteArray tagArray) {
+			return array.matchesBytes(tagArray.getByteArray());
+		} else if (nbt instanceof NBTTagIntArray tagArray) {
+			return array.matchesInts(tagArray.getIntArray());
+		} else if (nbt instanceof NBTTagLongArray tagArray) {
+			return array.matchesLongs(IModNBTTagLongArray.getLongArray(tagArray));
+		} else if (nbt instanceof NBTTagList tagArray) {
+			for (NBTBase tag : tagArray) {
+				if (!nested.matches(tag)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+}
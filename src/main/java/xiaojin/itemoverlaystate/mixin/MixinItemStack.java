@@ -0,0 +1,17 @@
+package xiaojin.itemoverlaystate.mixin;
+
+import net.minecraft.item.ItemStack;
+import org.spongepowered.asm.mixin.*;
+import xiaojin.itemoverlaystate.mixinimod.IModItemStack;
+
+@Mixin(ItemStack.class)
+@Implements(value = @Interface(iface = IModItemStack.class, prefix = "iosIMod$"))
+public class MixinItemStack {
+	@Shadow
+	private int itemDamage;
+	
+	@Unique
+	public int iosIMod$getRawItemDamage() {
+		return itemDamage;
+	}
+}
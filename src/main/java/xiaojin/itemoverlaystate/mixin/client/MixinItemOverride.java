@@ -3,7 +3,6 @@ package xiaojin.itemoverlaystate.mixin.client;
 import com.google.gson.JsonElement;
 import net.minecraft.client.renderer.block.model.ItemOverride;
 import net.minecraft.entity.EntityLivingBase;
-import net.minecraft.item.IItemPropertyGetter;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.ResourceLocation;
@@ -12,21 +11,37 @@ import org.spongepowered.asm.mixin.*;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+import xiaojin.itemoverlaystate.client.IosMetrics;
+import xiaojin.itemoverlaystate.client.IosPredicateCompiler;
+import xiaojin.itemoverlaystate.client.IosPredicatePool;
+import xiaojin.itemoverlaystate.client.condition.IosCondition;
+import xiaojin.itemoverlaystate.client.condition.IosConditions;
 import xiaojin.itemoverlaystate.mixinimod.client.IModItemOverride;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Map;
 
-import static xiaojin.itemoverlaystate.client.IosItemOverride.judgeCustomAdvancedConditions;
-
 
 @Mixin(ItemOverride.class)
 @Implements(value = @Interface(iface = IModItemOverride.class, prefix = "iosIMod$"))
 public abstract class MixinItemOverride {
+	@Shadow
+	@Final
+	private ResourceLocation                   location;
 	@Shadow
 	@Final
 	private Map<ResourceLocation, Float>       mapResourceValues;
 	@Unique
-	private Map<ResourceLocation, JsonElement> ios$mapResourceValues; // 新匹配属性Map集
+	private Map<ResourceLocation, JsonElement> ios$mapResourceValues; // 新匹配属性Map集，编译后释放
+	@Unique
+	private int                                ios$iosCount; // ios:谓词的数量
+	@Unique
+	private String                             ios$source = ""; // 编译后保留的ios:谓词文本
+	@Unique
+	private volatile IosCondition              ios$condition; // 编译后的匹配条件，尚未编译时为null
+	@Unique
+	private volatile Map<Item, IosCondition>   ios$fused = Collections.emptyMap(); // 物品 -> 解析好原版属性的完整条件，写时复制
 	
 	@Unique
 	public Map<ResourceLocation, JsonElement> iosIMod$getMapResourceValues() {
@@ -36,27 +51,92 @@ public abstract class MixinItemOverride {
 	@Unique
 	public void iosIMod$setMapResourceValues(Map<ResourceLocation, JsonElement> ios$mapResourceValues) {
 		this.ios$mapResourceValues = ios$mapResourceValues;
+		this.ios$iosCount = ios$mapResourceValues == null ? 0 : ios$mapResourceValues.size();
+	}
+	
+	/**
+	 * 获取编译后的条件，通常已由{@link IosPredicateCompiler}在烘焙前并行编译，尚未编译时（包括延迟编译）在这里编译，只编译一次。
+	 * 相同的谓词映射共享同一个条件，见{@link IosPredicatePool}。编译后只保留谓词文本，释放JSON
+	 */
+	@Unique
+	public IosCondition iosIMod$getCondition() {
+		IosCondition condition = ios$condition;
+		if (condition == null && ios$iosCount > 0) {
+			synchronized (this) {
+				condition = ios$condition;
+				if (condition == null) {
+					condition = IosPredicatePool.compile(ios$mapResourceValues);
+					ios$source = IosPredicatePool.source(ios$mapResourceValues);
+					ios$condition = condition;
+					ios$mapResourceValues = null;
+				}
+			}
+		}
+		return condition;
+	}
+	
+	@Unique
+	public String iosIMod$getSource() {
+		return ios$source;
 	}
 	
+	@Unique
+	public void iosIMod$setCondition(IosCondition ios$condition) {
+		this.ios$condition = ios$condition;
+		this.ios$fused = Collections.emptyMap();
+	}
+	
+	@Unique
+	public boolean iosIMod$hasVanillaPredicates() {
+		return mapResourceValues.size() > ios$iosCount;
+	}
+	
+	@Unique
+	public boolean iosIMod$matches(ItemStack stack, World worldIn, EntityLivingBase livingEntity) {
+		return matchesItemStack(stack, worldIn, livingEntity);
+	}
+	
+	@Shadow
+	abstract boolean matchesItemStack(ItemStack stack, World worldIn, EntityLivingBase livingEntity);
+	
+	/**
+	 * 用按物品解析好的完整条件代替原版的逐个属性查找，原版属性谓词和ios:谓词在一次判断中短路求值
+	 */
 	@Inject(at = @At("HEAD"), method = "matchesItemStack", cancellable = true)
 	private void ios$matchesItemStack(ItemStack stack, World worldIn, EntityLivingBase livingEntity, CallbackInfoReturnable<Boolean> cir) {
-		if (mapResourceValues == null || ios$mapResourceValues == null || mapResourceValues.isEmpty() || ios$mapResourceValues.isEmpty()) {
+		if (mapResourceValues == null || mapResourceValues.isEmpty()) {
 			return;
 		}
+		IosCondition condition = ios$getFused(stack.getItem());
 		
-		if (!judgeCustomAdvancedConditions(stack, ios$mapResourceValues)) {
-			cir.setReturnValue(false);
+		if (IosMetrics.ENABLED && iosIMod$getCondition() != null) {
+			long start = System.nanoTime();
+			boolean result = condition.test(stack, worldIn, livingEntity);
+			IosMetrics.recordMatch(stack.getItem(), location, start);
+			cir.setReturnValue(result);
 			return;
 		}
-		Item item = stack.getItem();
-		for (Map.Entry<ResourceLocation, Float> entry : mapResourceValues.entrySet()) {
-			IItemPropertyGetter iitempropertygetter = item.getPropertyGetter(entry.getKey());
-			if (ios$mapResourceValues == null && (iitempropertygetter == null || iitempropertygetter.apply(stack, worldIn, livingEntity) < entry.getValue().floatValue())) {
-				cir.setReturnValue(false);
-				return;
+		cir.setReturnValue(condition.test(stack, worldIn, livingEntity));
+	}
+	
+	/**
+	 * 获取为物品解析好原版属性的完整条件，每个物品只解析一次。同一个模型可能注册给多个物品，按物品分别保存
+	 */
+	@Unique
+	private IosCondition ios$getFused(Item item) {
+		IosCondition fused = ios$fused.get(item);
+		if (fused == null) {
+			synchronized (this) {
+				Map<Item, IosCondition> current = ios$fused;
+				fused = current.get(item);
+				if (fused == null) {
+					fused = IosConditions.fuse(item, mapResourceValues, iosIMod$getCondition());
+					Map<Item, IosCondition> copy = new IdentityHashMap<>(current);
+					copy.put(item, fused);
+					ios$fused = copy;
+				}
 			}
 		}
-		
-		cir.setReturnValue(true);
+		return fused;
 	}
 }
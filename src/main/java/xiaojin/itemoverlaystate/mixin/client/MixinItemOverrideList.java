@@ -0,0 +1,174 @@
+package xiaojin.itemoverlaystate.mixin.client;
+
+import net.minecraft.client.renderer.block.model.ItemOverride;
+import net.minecraft.client.renderer.block.model.ItemOverrideList;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.world.World;
+import org.spongepowered.asm.mixin.*;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+import xiaojin.itemoverlaystate.IosConfig;
+import xiaojin.itemoverlaystate.client.IosFrameBudget;
+import xiaojin.itemoverlaystate.client.IosFrameContext;
+import xiaojin.itemoverlaystate.client.IosInventoryPrecompute;
+import xiaojin.itemoverlaystate.client.IosOverrideCache;
+import xiaojin.itemoverlaystate.client.IosOverrideIndex;
+import xiaojin.itemoverlaystate.client.IosPredicateCompiler;
+import xiaojin.itemoverlaystate.client.condition.IosCondition;
+import xiaojin.itemoverlaystate.mixinimod.client.IModItemOverride;
+import xiaojin.itemoverlaystate.mixinimod.client.IModItemOverrideList;
+
+import java.util.List;
+
+/**
+ * 在覆盖列表的解析前加入{@link IosInventoryPrecompute}、{@link IosFrameContext}、{@link IosOverrideCache}、{@link IosFrameBudget}和{@link IosOverrideIndex}
+ */
+@Mixin(ItemOverrideList.class)
+@Implements(value = @Interface(iface = IModItemOverrideList.class, prefix = "iosIMod$"))
+public abstract class MixinItemOverrideList {
+	@Shadow
+	@Final
+	private List<ItemOverride> overrides;
+	@Unique
+	private boolean            ios$cacheable; // 结果是否只取决于物品本身
+	@Unique
+	private boolean            ios$timed; // 结果是否取决于世界时间
+	@Unique
+	private boolean            ios$precomputable; // 是否可以在后台线程预计算
+	@Unique
+	private IosOverrideIndex   ios$index; // 阈值覆盖的索引，没有可合并的覆盖时为null
+	@Unique
+	private volatile boolean   ios$prepared; // 是否已经计算ios$cacheable和ios$index
+	
+	@Inject(at = @At("RETURN"), method = "<init>(Ljava/util/List;)V")
+	private void ios$init(List<ItemOverride> overridesIn, CallbackInfo ci) {
+		IosPredicateCompiler.compilePending();
+		if (!IosConfig.lazyPredicateCompile) {
+			ios$prepare();
+		}
+	}
+	
+	/**
+	 * 计算是否可以缓存并建立索引，需要编译全部覆盖的条件。延迟编译时在列表第一次使用时调用，只执行一次
+	 */
+	@Unique
+	private void ios$prepare() {
+		if (ios$prepared) {
+			return;
+		}
+		synchronized (this) {
+			if (!ios$prepared) {
+				ios$cacheable = IosOverrideCache.isCacheable(overrides);
+				ios$timed = IosOverrideCache.dependsOnTime(overrides);
+				ios$precomputable = ios$cacheable && IosInventoryPrecompute.isPrecomputable(overrides);
+				ios$index = IosOverrideIndex.build(overrides);
+				ios$prepared = true;
+			}
+		}
+	}
+	
+	@Unique
+	public boolean iosIMod$isCacheable() {
+		ios$prepare();
+		return ios$cacheable;
+	}
+	
+	@Unique
+	public long iosIMod$stableTicks() {
+		return IosOverrideCache.stableTicks(overrides);
+	}
+	
+	@Unique
+	public boolean iosIMod$dependsOnTime() {
+		ios$prepare();
+		return ios$timed;
+	}
+	
+	@Unique
+	public boolean iosIMod$isPrecomputable() {
+		ios$prepare();
+		return ios$precomputable;
+	}
+	
+	@Unique
+	public ResourceLocation iosIMod$evaluate(ItemStack stack) {
+		for (ItemOverride override : overrides) {
+			IosCondition condition = ((IModItemOverride) override).getCondition();
+			if (condition != null && condition.test(stack, null, null)) {
+				return override.getLocation();
+			}
+		}
+		return null;
+	}
+	
+	@Inject(at = @At("HEAD"), method = "applyOverride", cancellable = true)
+	private void ios$applyOverride(ItemStack stack, World worldIn, EntityLivingBase entityIn, CallbackInfoReturnable<ResourceLocation> cir) {
+		if (overrides.isEmpty()) {
+			return;
+		}
+		ios$prepare();
+		ItemOverrideList self = (ItemOverrideList) (Object) this;
+		ResourceLocation precomputed = IosInventoryPrecompute.get(self, stack);
+		if (precomputed != null) {
+			cir.setReturnValue(precomputed == IosOverrideCache.NO_OVERRIDE ? null : precomputed);
+			return;
+		}
+		boolean inFrame = IosFrameContext.isActive();
+		if (inFrame) {
+			ResourceLocation result = IosFrameContext.get(self, stack, worldIn, entityIn);
+			if (result != null) {
+				cir.setReturnValue(result == IosOverrideCache.NO_OVERRIDE ? null : result);
+				return;
+			}
+		}
+		if (ios$cacheable) {
+			ResourceLocation result = IosOverrideCache.get(self, stack);
+			if (result != null) {
+				if (inFrame) {
+					IosFrameContext.put(self, stack, worldIn, entityIn, result);
+				}
+				cir.setReturnValue(result == IosOverrideCache.NO_OVERRIDE ? null : result);
+				return;
+			}
+		}
+		if (IosFrameBudget.isActive()) {
+			ResourceLocation result = IosFrameBudget.defer(self, stack);
+			if (result != null) {
+				cir.setReturnValue(result == IosOverrideCache.NO_OVERRIDE ? null : result);
+				return;
+			}
+		}
+		if (ios$index == null) {
+			return;
+		}
+		// 取消原方法后RETURN处的注入不会执行，需要在这里写入缓存
+		ResourceLocation result = ios$index.apply(stack, worldIn, entityIn);
+		ios$store(stack, worldIn, entityIn, result);
+		cir.setReturnValue(result);
+	}
+	
+	@Inject(at = @At("RETURN"), method = "applyOverride")
+	private void ios$applyOverride$return(ItemStack stack, World worldIn, EntityLivingBase entityIn, CallbackInfoReturnable<ResourceLocation> cir) {
+		if (!overrides.isEmpty()) {
+			ios$store(stack, worldIn, entityIn, cir.getReturnValue());
+		}
+	}
+	
+	@Unique
+	private void ios$store(ItemStack stack, World worldIn, EntityLivingBase entityIn, ResourceLocation result) {
+		ItemOverrideList self = (ItemOverrideList) (Object) this;
+		if (ios$cacheable) {
+			IosOverrideCache.store(self, stack, result, iosIMod$stableTicks(), ios$timed);
+		}
+		if (IosFrameContext.isActive()) {
+			IosFrameContext.put(self, stack, worldIn, entityIn, result);
+		}
+		if (IosFrameBudget.isActive()) {
+			IosFrameBudget.record(self, stack, result);
+		}
+	}
+}
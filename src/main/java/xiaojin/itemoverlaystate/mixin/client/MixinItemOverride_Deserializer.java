@@ -14,6 +14,9 @@ import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.Redirect;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+import xiaojin.itemoverlaystate.IosConfig;
+import xiaojin.itemoverlaystate.client.IosPredicateCompiler;
+import xiaojin.itemoverlaystate.client.IosPredicatePool;
 import xiaojin.itemoverlaystate.mixinimod.client.IModItemOverride;
 
 import java.lang.reflect.Type;
@@ -70,14 +73,18 @@ public abstract class MixinItemOverride_Deserializer implements JsonDeserializer
 			}
 			stringMap.put(new ResourceLocation(key), entry.getValue());
 		}
-		// 提取原版的浮点映射
-		Map<ResourceLocation, Float> floatMap = makeMapResourceValues(jsonObject);
+		// 提取原版的浮点映射，结构相同的映射共享同一个实例
+		Map<ResourceLocation, Float> floatMap = IosPredicatePool.internVanilla(makeMapResourceValues(jsonObject));
 		// 获取模型资源位置
 		ResourceLocation locationIn = new ResourceLocation(JsonUtils.getString(jsonObject, "model"));
 		// 创建支持STI功能的ItemOverride实例
 		IModItemOverride itemOverride = (IModItemOverride) new ItemOverride(locationIn, floatMap);
-		// 设置STI字符串映射
-		itemOverride.setMapResourceValues(stringMap);
+		// 设置STI字符串映射，结构相同的映射共享同一个实例
+		itemOverride.setMapResourceValues(IosPredicatePool.internIos(stringMap));
+		// STI条件在烘焙前统一并行编译，渲染时不再解析JSON；延迟编译时在第一次判断时编译
+		if (!stringMap.isEmpty() && !IosConfig.lazyPredicateCompile) {
+			IosPredicateCompiler.enqueue(itemOverride);
+		}
 		// 设置返回值并取消原方法执行
 		cir.setReturnValue((ItemOverride) itemOverride);
 //		StiItemOverride.deserialize(element, makeMapResourceValues(jsonobject), cir);
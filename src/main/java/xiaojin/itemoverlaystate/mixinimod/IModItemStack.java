@@ -0,0 +1,14 @@
+package xiaojin.itemoverlaystate.mixinimod;
+
+import net.minecraft.item.ItemStack;
+
+public interface IModItemStack {
+	int getRawItemDamage();
+	
+	/**
+	 * 读取原始损坏值，没有应用Mixin时（基准测试）通过反射读取
+	 */
+	static int getRawItemDamage(ItemStack stack) {
+		return (Object) stack instanceof IModItemStack modStack ? modStack.getRawItemDamage() : MixinFallback.getRawItemDamage(stack);
+	}
+}
@@ -1,5 +1,14 @@
 package xiaojin.itemoverlaystate.mixinimod;
 
+import net.minecraft.nbt.NBTTagLongArray;
+
 public interface IModNBTTagLongArray {
 	long[] getLongArray();
+	
+	/**
+	 * 读取长整型数组，没有应用Mixin时（基准测试）通过反射读取
+	 */
+	static long[] getLongArray(NBTTagLongArray array) {
+		return array instanceof IModNBTTagLongArray modArray ? modArray.getLongArray() : MixinFallback.getLongArray(array);
+	}
 }
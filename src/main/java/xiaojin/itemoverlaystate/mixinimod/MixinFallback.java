@@ -0,0 +1,45 @@
+package xiaojin.itemoverlaystate.mixinimod;
+
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagLongArray;
+
+import java.lang.reflect.Field;
+
+/**
+ * 没有应用Mixin时通过反射读取字段
+ *
+ * <p>只有基准测试直接加载反混淆后的原版类时会用到，游戏中Mixin总是生效，不会加载这个类</p>
+ */
+final class MixinFallback {
+	private static final Field LONG_ARRAY_DATA = field(NBTTagLongArray.class, "data");
+	private static final Field ITEM_DAMAGE     = field(ItemStack.class, "itemDamage");
+	
+	private MixinFallback() {
+	}
+	
+	static long[] getLongArray(NBTTagLongArray array) {
+		try {
+			return (long[]) LONG_ARRAY_DATA.get(array);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	static int getRawItemDamage(ItemStack stack) {
+		try {
+			return ITEM_DAMAGE.getInt(stack);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	private static Field field(Class<?> owner, String name) {
+		try {
+			Field field = owner.getDeclaredField(name);
+			field.setAccessible(true);
+			return field;
+		} catch (NoSuchFieldException e) {
+			throw new IllegalStateException("Mixin is not applied and " + owner.getName() + "." + name + " is not available", e);
+		}
+	}
+}
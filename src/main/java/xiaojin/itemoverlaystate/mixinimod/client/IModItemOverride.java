@@ -1,13 +1,44 @@
 package xiaojin.itemoverlaystate.mixinimod.client;
 
 import com.google.gson.JsonElement;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.item.ItemStack;
 import net.minecraft.util.ResourceLocation;
+import net.minecraft.world.World;
+import xiaojin.itemoverlaystate.client.condition.IosCondition;
 
+import javax.annotation.Nullable;
 import java.util.Map;
 
 public interface IModItemOverride {
 	
+	/**
+	 * @return ios:谓词的JSON值，编译后释放，之后返回null
+	 */
+	@Nullable
 	Map<ResourceLocation, JsonElement> getMapResourceValues();
 	
 	void setMapResourceValues(Map<ResourceLocation, JsonElement> sti$mapResourceValues);
+	
+	@Nullable
+	IosCondition getCondition();
+	
+	void setCondition(@Nullable IosCondition condition);
+	
+	/**
+	 * @return ios:谓词的紧凑JSON文本，用于调试，尚未编译或没有ios:谓词时为空字符串
+	 */
+	String getSource();
+	
+	/**
+	 * @return 是否含有ios:以外的原版谓词
+	 */
+	boolean hasVanillaPredicates();
+	
+	/**
+	 * 调用原版的匹配方法（包括ios:条件）
+	 *
+	 * @return 如果物品满足该覆盖返回true，否则返回false
+	 */
+	boolean matches(ItemStack stack, @Nullable World world, @Nullable EntityLivingBase livingEntity);
 }
@@ -0,0 +1,36 @@
+package xiaojin.itemoverlaystate.mixinimod.client;
+
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.ResourceLocation;
+
+import javax.annotation.Nullable;
+
+public interface IModItemOverrideList {
+	/**
+	 * @return 结果是否只取决于物品本身，见{@link xiaojin.itemoverlaystate.client.IosOverrideCache#isCacheable}
+	 */
+	boolean isCacheable();
+	
+	/**
+	 * @return 结果至少还能保持多少个客户端tick不变，见{@link xiaojin.itemoverlaystate.client.IosOverrideCache#stableTicks}
+	 */
+	long stableTicks();
+	
+	/**
+	 * @return 结果是否取决于世界时间，见{@link xiaojin.itemoverlaystate.client.IosOverrideCache#dependsOnTime}
+	 */
+	boolean dependsOnTime();
+	
+	/**
+	 * @return 结果是否只取决于物品本身并且可以在后台线程判断，见{@link xiaojin.itemoverlaystate.client.IosInventoryPrecompute#isPrecomputable}
+	 */
+	boolean isPrecomputable();
+	
+	/**
+	 * 直接用编译好的条件按顺序判断，不经过缓存、字节码判断和其他模组对applyOverride的重写，只用于可以预计算的列表
+	 *
+	 * @return 第一个满足的覆盖模型，没有满足的覆盖时返回null
+	 */
+	@Nullable
+	ResourceLocation evaluate(ItemStack stack);
+}